@@ -0,0 +1,76 @@
+package benchmark;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import unitTest.PayloadCorpus;
+import unitTest.RandomDataGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and serializing request payloads the way the perf tests do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadGenerationBenchmark {
+
+    private JSONObject prebuiltTodo;
+    private PayloadCorpus corpus;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        prebuiltTodo = RandomDataGenerator.createRandomTodo();
+        corpus = PayloadCorpus.generate(PayloadCorpus.Kind.TODO, 1200, PayloadCorpus.DEFAULT_SEED);
+    }
+
+    // ---------- generation ----------
+
+    @Benchmark
+    public JSONObject fakerTodo() {
+        return RandomDataGenerator.createRandomTodo();
+    }
+
+    @Benchmark
+    public JSONObject fakerProject() {
+        return RandomDataGenerator.createRandomProject();
+    }
+
+    // Same shape as TodoUnitTest.newUniqueTodo()
+    @Benchmark
+    public JSONObject uniqueTodo() {
+        return new JSONObject()
+                .put("title", "Todo " + System.currentTimeMillis())
+                .put("doneStatus", false)
+                .put("description", "Testing Todo endpoints");
+    }
+
+    // ---------- serialization ----------
+
+    @Benchmark
+    public String todoToString() {
+        return prebuiltTodo.toString();
+    }
+
+    @Benchmark
+    public byte[] todoToBytes() {
+        return prebuiltTodo.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // What a perf loop iteration pays before the request is even sent
+    @Benchmark
+    public String fakerTodoEndToEnd() {
+        return RandomDataGenerator.createRandomTodo().toString();
+    }
+
+    // What a perf loop iteration pays with a pre-generated corpus
+    @Benchmark
+    public byte[] corpusTodo() {
+        return corpus.get(next++ & Integer.MAX_VALUE);
+    }
+}
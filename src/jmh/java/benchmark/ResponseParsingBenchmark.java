@@ -0,0 +1,144 @@
+package benchmark;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.xml.XmlPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import unitTest.StreamingExtractor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the RestAssured response parsing used by the tests, on bodies shaped
+ * like the API's single-todo and list responses, against the streaming
+ * {@link StreamingExtractor} that never builds the document tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseParsingBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    public int todoCount;
+
+    private String singleTodoJson;
+    private String todoListJson;
+    private String todoListXml;
+    private byte[] todoListJsonBytes;
+    private byte[] todoListXmlBytes;
+    private String lastTitle;
+    private Response singleTodoResponse;
+    private Response todoListResponse;
+    private Response todoListXmlResponse;
+
+    @Setup
+    public void setUp() {
+        singleTodoJson = "{\"id\":\"7\",\"title\":\"Todo 1700000000000\","
+                + "\"doneStatus\":\"false\",\"description\":\"Testing Todo endpoints\"}";
+
+        StringBuilder json = new StringBuilder("{\"todos\":[");
+        StringBuilder xml = new StringBuilder("<todos>");
+        for (int i = 0; i < todoCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(i).append("\",\"title\":\"Todo ").append(i)
+                    .append("\",\"doneStatus\":\"false\",\"description\":\"Testing Todo endpoints\"}");
+            xml.append("<todo><id>").append(i).append("</id><title>Todo ").append(i)
+                    .append("</title><doneStatus>false</doneStatus>")
+                    .append("<description>Testing Todo endpoints</description></todo>");
+        }
+        json.append("]}");
+        xml.append("</todos>");
+        todoListJson = json.toString();
+        todoListXml = xml.toString();
+        todoListJsonBytes = todoListJson.getBytes(StandardCharsets.UTF_8);
+        todoListXmlBytes = todoListXml.getBytes(StandardCharsets.UTF_8);
+        lastTitle = "Todo " + (todoCount - 1);
+
+        singleTodoResponse = buildResponse(singleTodoJson, "application/json");
+        todoListResponse = buildResponse(todoListJson, "application/json");
+        todoListXmlResponse = buildResponse(todoListXml, "application/xml");
+    }
+
+    private static Response buildResponse(String body, String contentType) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(contentType)
+                .setBody(body)
+                .build();
+    }
+
+    // ---------- parsing as the tests do it ----------
+
+    // response.jsonPath().getInt("id") after every POST /todos
+    @Benchmark
+    public int responseJsonPathId() {
+        return singleTodoResponse.jsonPath().getInt("id");
+    }
+
+    // shouldListTodosAsJson
+    @Benchmark
+    public List<Map<String, Object>> responseJsonPathList() {
+        return todoListResponse.jsonPath().getList("todos");
+    }
+
+    // shouldListTodosAsXml
+    @Benchmark
+    public List<String> responseXmlPathTitles() {
+        return todoListXmlResponse.xmlPath().getList("todos.todo.title");
+    }
+
+    // ---------- parser only, without the Response wrapper ----------
+
+    @Benchmark
+    public List<Map<String, Object>> jsonPathList() {
+        return JsonPath.from(todoListJson).getList("todos");
+    }
+
+    @Benchmark
+    public List<String> xmlPathTitles() {
+        return XmlPath.from(todoListXml).getList("todos.todo.title");
+    }
+
+    // ---------- tree versus streaming on the same list ----------
+
+    // what shouldListTodosAsJson needs: is the seeded title in the list (worst case: it is last)
+    @Benchmark
+    public boolean jsonPathFindTitle() {
+        return JsonPath.from(todoListJson).getList("todos.title").contains(lastTitle);
+    }
+
+    @Benchmark
+    public boolean streamingJsonFindTitle() throws IOException {
+        return StreamingExtractor.find(todoListJsonBytes, "todos", "title", lastTitle) != null;
+    }
+
+    @Benchmark
+    public int jsonPathCount() {
+        return JsonPath.from(todoListJson).getList("todos").size();
+    }
+
+    @Benchmark
+    public int streamingJsonCount() throws IOException {
+        return StreamingExtractor.count(todoListJsonBytes, "todos");
+    }
+
+    @Benchmark
+    public List<String> streamingJsonTitles() throws IOException {
+        return StreamingExtractor.project(todoListJsonBytes, "todos", "title");
+    }
+
+    @Benchmark
+    public List<String> streamingXmlTitles() throws IOException {
+        return StreamingExtractor.project(todoListXmlBytes, "todos", "title");
+    }
+}
@@ -0,0 +1,131 @@
+package storyTest;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RestAssured filter that records what a scenario changed on the server:
+ * entities it created, fixture entities it modified or re-linked, and
+ * whether it deleted a fixture outright (which the API cannot undo, since
+ * ids are never reused).
+ */
+public class ChangeTracker implements Filter {
+
+    // relationship name -> collection its ids point into
+    private static final Map<String, String> RELATIONSHIP_TARGETS = Map.of(
+            "tasks", "todos",
+            "tasksof", "projects",
+            "categories", "categories",
+            "todos", "todos",
+            "projects", "projects"
+    );
+
+    private final FixtureSnapshot fixtures;
+    private final Set<String> created = new LinkedHashSet<>();
+    private final Set<String> touchedFixtures = new LinkedHashSet<>();
+    private boolean fixtureDeleted;
+
+    public ChangeTracker(FixtureSnapshot fixtures) {
+        this.fixtures = fixtures;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        record(requestSpec.getMethod(), URI.create(requestSpec.getURI()).getPath(),
+                response.getStatusCode(), response.asString());
+        return response;
+    }
+
+    synchronized void record(String method, String path, int status, String body) {
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) || status >= 400) {
+            return;
+        }
+        String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+
+        // POST /todos -> new entity
+        if (segments.length == 1 && "POST".equals(method)) {
+            addCreated(segments[0], body);
+            return;
+        }
+        if (segments.length < 2) {
+            return;
+        }
+
+        String owner = segments[0] + "/" + segments[1];
+        if (segments.length == 2) {
+            if (fixtures.contains(owner)) {
+                touchedFixtures.add(owner);
+                if ("DELETE".equals(method)) {
+                    fixtureDeleted = true;
+                }
+            }
+            return;
+        }
+
+        // /todos/1/categories[/2]: a link changed on both ends
+        String target = RELATIONSHIP_TARGETS.get(segments[2]);
+        if (fixtures.contains(owner)) {
+            touchedFixtures.add(owner);
+        }
+        if (segments.length >= 4 && target != null && fixtures.contains(target + "/" + segments[3])) {
+            touchedFixtures.add(target + "/" + segments[3]);
+        }
+        // posting a body without an id to a relationship creates the target entity inline
+        if ("POST".equals(method) && segments.length == 3 && target != null) {
+            addCreated(target, body);
+        }
+    }
+
+    private void addCreated(String type, String body) {
+        String id = idOf(body);
+        if (id != null) {
+            created.add(type + "/" + id);
+        }
+    }
+
+    private static String idOf(String body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            return new JSONObject(body).optString("id", null);
+        } catch (RuntimeException notJson) {
+            int start = body.indexOf("<id>");
+            int end = body.indexOf("</id>");
+            return start >= 0 && end > start ? body.substring(start + 4, end) : null;
+        }
+    }
+
+    /** "type/id" of entities the scenario created. */
+    public synchronized Set<String> getCreated() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(created));
+    }
+
+    /** "type/id" of fixture entities whose fields or links may have changed. */
+    public synchronized Set<String> getTouchedFixtures() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(touchedFixtures));
+    }
+
+    public synchronized boolean isFixtureDeleted() {
+        return fixtureDeleted;
+    }
+
+    public synchronized void clear() {
+        created.clear();
+        touchedFixtures.clear();
+        fixtureDeleted = false;
+    }
+}
@@ -5,6 +5,9 @@ import io.cucumber.core.cli.Main;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.junit.platform.suite.api.*;
@@ -15,6 +18,7 @@ import static io.cucumber.junit.platform.engine.Constants.*;
 @SelectClasspathResource("features")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "storyTest")
 @ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-report.html")
+// parallel settings live in junit-platform.properties so -Dcucumber.execution.parallel.* can override them
 public class CucumberTestRunner {
     public static void main(String[] args) throws Exception {
         final long seed = 12345L;                 // deterministic shuffle
@@ -31,13 +35,37 @@ public class CucumberTestRunner {
         System.out.println("Feature run order (seed=" + seed + "):");
         features.forEach(System.out::println);
 
-        // Build cucumber CLI args and run
-        List<String> cli = new ArrayList<>(Arrays.asList(
-                "--glue", "storyTest",
-                "--plugin", "pretty"
-        ));
-        cli.addAll(features);
+        // Deal the shuffled features round-robin to the workers; each worker
+        // runs its share sequentially, in shuffled order
+        int workers = Math.min(ScenarioServerPool.parallelism(), features.size());
+        List<List<String>> shares = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            shares.add(new ArrayList<>());
+        }
+        for (int i = 0; i < features.size(); i++) {
+            shares.get(i % workers).add(features.get(i));
+        }
 
-        Main.main(cli.toArray(new String[0]));
+        // Build cucumber CLI args and run every worker against the shared server pool
+        ScenarioServerPool.open(workers);
+        byte exitStatus = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            List<Future<Byte>> runs = new ArrayList<>();
+            for (List<String> share : shares) {
+                List<String> cli = new ArrayList<>(Arrays.asList(
+                        "--glue", "storyTest",
+                        "--plugin", workers == 1 ? "pretty" : "summary"
+                ));
+                cli.addAll(share);
+                runs.add(executor.submit(() ->
+                        Main.run(cli.toArray(new String[0]), Thread.currentThread().getContextClassLoader())));
+            }
+            for (Future<Byte> run : runs) {
+                exitStatus = (byte) Math.max(exitStatus, run.get());
+            }
+        } finally {
+            ScenarioServerPool.close();
+        }
+        System.exit(exitStatus);
     }
 }
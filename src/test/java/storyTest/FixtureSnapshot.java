@@ -0,0 +1,156 @@
+package storyTest;
+
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The entities a freshly started server comes with (todos 1-2, project 1,
+ * categories 1-2) and the links between them, read through the API right
+ * after startup. Each entity is reduced to its plain fields plus one id set
+ * per relationship, so the state can be compared and restored regardless of
+ * the order the server lists links in.
+ */
+public class FixtureSnapshot {
+
+    /** Collections the server starts with entities in. */
+    public static final String[] TYPES = {"todos", "projects", "categories"};
+
+    private final Map<String, Entity> entities;
+
+    private FixtureSnapshot(Map<String, Entity> entities) {
+        this.entities = entities;
+    }
+
+    /**
+     * Reads every entity the server currently has.
+     */
+    public static FixtureSnapshot capture(RequestSpecification spec) {
+        Map<String, Entity> entities = new TreeMap<>();
+        for (String type : TYPES) {
+            JSONObject list = new JSONObject(RestAssured.given().spec(spec).get("/" + type).asString());
+            JSONArray items = list.optJSONArray(type);
+            if (items == null) {
+                continue;
+            }
+            for (int i = 0; i < items.length(); i++) {
+                Entity entity = Entity.from(type, items.getJSONObject(i));
+                entities.put(entity.getKey(), entity);
+            }
+        }
+        return new FixtureSnapshot(entities);
+    }
+
+    /** Entities keyed by "type/id", e.g. "todos/1". */
+    public Map<String, Entity> getEntities() {
+        return Collections.unmodifiableMap(entities);
+    }
+
+    public boolean contains(String key) {
+        return entities.containsKey(key);
+    }
+
+    public Entity get(String key) {
+        return entities.get(key);
+    }
+
+    /**
+     * One entity as plain fields and relationship id sets.
+     */
+    public static final class Entity {
+        private final String type;
+        private final String id;
+        private final Map<String, String> fields;
+        private final Map<String, Set<String>> relationships;
+
+        Entity(String type, String id, Map<String, String> fields, Map<String, Set<String>> relationships) {
+            this.type = type;
+            this.id = id;
+            this.fields = fields;
+            this.relationships = relationships;
+        }
+
+        static Entity from(String type, JSONObject json) {
+            Map<String, String> fields = new TreeMap<>();
+            Map<String, Set<String>> relationships = new TreeMap<>();
+            for (String name : json.keySet()) {
+                Object value = json.get(name);
+                if (value instanceof JSONArray) {
+                    Set<String> ids = new TreeSet<>();
+                    JSONArray links = (JSONArray) value;
+                    for (int i = 0; i < links.length(); i++) {
+                        ids.add(links.getJSONObject(i).getString("id"));
+                    }
+                    relationships.put(name, ids);
+                } else if (!"id".equals(name)) {
+                    fields.put(name, String.valueOf(value));
+                }
+            }
+            return new Entity(type, json.getString("id"), fields, relationships);
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getKey() {
+            return type + "/" + id;
+        }
+
+        public Map<String, String> getFields() {
+            return fields;
+        }
+
+        public Set<String> getRelationship(String name) {
+            return relationships.getOrDefault(name, Collections.emptySet());
+        }
+
+        public Map<String, Set<String>> getRelationships() {
+            return relationships;
+        }
+
+        /**
+         * Body that sets every plain field back to this entity's values.
+         * The API reports booleans as strings but only accepts real booleans.
+         */
+        public JSONObject toFieldsBody() {
+            Map<String, Object> body = new LinkedHashMap<>();
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                String value = field.getValue();
+                if ("true".equals(value) || "false".equals(value)) {
+                    body.put(field.getKey(), Boolean.parseBoolean(value));
+                } else {
+                    body.put(field.getKey(), value);
+                }
+            }
+            return new JSONObject(body);
+        }
+
+        /** Same fields and links, ignoring empty relationships. */
+        public boolean sameStateAs(Entity other) {
+            return fields.equals(other.fields) && nonEmpty(relationships).equals(nonEmpty(other.relationships));
+        }
+
+        private static Map<String, Set<String>> nonEmpty(Map<String, Set<String>> relationships) {
+            Map<String, Set<String>> result = new TreeMap<>();
+            relationships.forEach((name, ids) -> {
+                if (!ids.isEmpty()) {
+                    result.put(name, ids);
+                }
+            });
+            return result;
+        }
+    }
+}
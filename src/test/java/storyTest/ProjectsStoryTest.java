@@ -1,13 +1,10 @@
 package storyTest;
 
 import io.cucumber.datatable.DataTable;
-import io.cucumber.java.AfterAll;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 
-import io.restassured.RestAssured;
-import static io.restassured.RestAssured.given;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,7 +15,6 @@ import java.util.Map;
 
 public class ProjectsStoryTest {
 
-    private static Process process;
     private Response response;
     private RequestSpecification request;
 
@@ -47,21 +43,13 @@ public class ProjectsStoryTest {
         assertEquals("", actualDescription, "Description should be empty by default");
     }
 
-    @AfterAll
-    public static void stopServer() {
-        try {
-            given().get("/shutdown");
-        } catch (Exception ignored) {
-        }
-    }
-
 // -------------------------- CreateNewProject.feature Steps --------------------------
     // -------------------------- Normal Flow --------------------------
     @When("I send a POST request to {string} with title: {string} and active flag: {string}")
     public void sendPostRequestToCreateProject(String endpoint, String title, String active) {
         // Construct the JSON body with the provided parameters
         String requestBody = String.format("{\"title\":\"%s\", \"active\":%s}", title, active);
-        request = RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body(requestBody);
         response = request.post(endpoint);
@@ -78,7 +66,7 @@ public class ProjectsStoryTest {
     // -------------------------- Alternate Flow --------------------------
     @When("I send a POST request to {string} with an empty request body")
     public void sendPostRequestWithEmptyBody(String endpoint) {
-        request = RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body("{}");
         response = request.post(endpoint);
@@ -99,7 +87,7 @@ public class ProjectsStoryTest {
     @When("I send a POST request to {string} where active field is {string}")
     public void sendInvalidPostRequest(String endpoint, String invalidActive) {
         String requestBody = String.format("{\"title\":\"Invalid Project\", \"active\":\"%s\"}", invalidActive);
-        request = RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body(requestBody);
         response = request.post(endpoint);
@@ -116,7 +104,7 @@ public class ProjectsStoryTest {
     @When("I update the project at {string} via PUT with title {string} and description {string}")
     public void putUpdateProject(String endpoint, String title, String description) {
         String body = String.format("{\"title\":\"%s\", \"description\":\"%s\"}", title, description);
-        request = RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body(body);
         response = request.put("/" + endpoint);
@@ -135,7 +123,7 @@ public class ProjectsStoryTest {
     @When("I update the project at {string} via POST with title {string} and description {string}")
     public void postUpdateProject(String endpoint, String title, String description) {
         String body = String.format("{\"title\":\"%s\", \"description\":\"%s\"}", title, description);
-        request = RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body(body);
         response = request.post("/" + endpoint);
@@ -146,13 +134,13 @@ public class ProjectsStoryTest {
     @When("I delete the project at {string}")
     public void deleteProjectAt(String endpoint) {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
-        response = io.restassured.RestAssured.given().delete(path);
+        response = given().delete(path);
     }
 
     @Then("the project at {string} should no longer exist")
     public void verifyProjectIsDeleted(String endpoint) {
         // Confirm the resource is gone by attempting a GET
-        response = io.restassured.RestAssured.given().when().get("/" + endpoint);
+        response = given().when().get("/" + endpoint);
         org.junit.jupiter.api.Assertions.assertEquals(
                 404, response.getStatusCode(),
                 "Expected deletion: resource at " + endpoint + " should not be found"
@@ -161,7 +149,7 @@ public class ProjectsStoryTest {
 
     @When("I send a DELETE request to project endpoint {string}")
     public void deleteProjectAtProject(String endpoint) {
-        response = RestAssured.given().delete("/" + endpoint);
+        response = given().delete("/" + endpoint);
     }
 
     @Then("the project response code should be {int}")
@@ -174,7 +162,7 @@ public class ProjectsStoryTest {
     @When("I create a project via POST to {string} with title {string} and active {string}, then delete it")
     public void createThenDeleteProject(String endpoint, String title, String active) {
         String body = String.format("{\"title\":\"%s\", \"active\":%s}", title, active);
-        request = io.restassured.RestAssured.given()
+        request = given()
                 .header("Content-Type", "application/json")
                 .body(body);
 
@@ -184,14 +172,14 @@ public class ProjectsStoryTest {
         // Extract ID and delete
         String newProjectId = response.jsonPath().getString("id");
         String deleteEndpoint = "/" + endpoint + "/" + newProjectId;
-        response = io.restassured.RestAssured.given().delete(deleteEndpoint);
+        response = given().delete(deleteEndpoint);
     }
 
     // -------------------------- Error Flow --------------------------
     @Given("a project with ID {int} has been removed already")
     public void ensureProjectAlreadyDeleted(int deletedId) {
         String deleteEndpoint = "/projects/" + deletedId;
-        io.restassured.RestAssured.given()
+        given()
                 .header("Content-Type", "application/json")
                 .delete(deleteEndpoint);
         // idempotent: we don't assert here; the test scenarios will validate outcomes
@@ -226,7 +214,7 @@ public class ProjectsStoryTest {
     // ---------------------- Normal Flow ----------------------
     @When("we send a GET request to {string}")
     public void sendGetRequest(String endpoint) {
-        response = RestAssured.given().get("/" + endpoint);
+        response = given().get("/" + endpoint);
     }
 
     @Then("the response must contain a non-empty list of projects")
@@ -258,7 +246,11 @@ public class ProjectsStoryTest {
     // ---------------------- Alternate Flow ----------------------
     @When("I send a GET request to {string} with filter {string} applied")
     public void sendGetRequestWithFilter(String endpoint, String filter) {
-        response = RestAssured.given().get("/" + endpoint + filter);
+        response = given().get("/" + endpoint + filter);
     }
-}
 
+    // every step request goes through the scenario server's change tracker
+    private static RequestSpecification given() {
+        return ScenarioServerPool.current().given();
+    }
+}
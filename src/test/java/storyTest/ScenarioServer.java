@@ -0,0 +1,225 @@
+package storyTest;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.json.JSONObject;
+import unitTest.ServerManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * One server the Cucumber scenarios run against. It is started once and
+ * reset between scenarios through the API instead of being relaunched:
+ * everything a scenario creates is deleted and every fixture it touched is
+ * put back to its startup state, all in parallel, followed by a quick check
+ * of the full fixture set. Only when that cannot work (a fixture was
+ * deleted, or the check still fails) is the server restarted.
+ * Scenarios get an instance from {@link ScenarioServerPool}.
+ */
+public final class ScenarioServer {
+
+    // requests sent to a fresh server so the first scenario on it does not pay for JIT warm-up
+    private static final int WARM_UP_REQUESTS = 200;
+
+    private ServerManager server;
+    private RequestSpecification spec;
+    private FixtureSnapshot fixtures;
+    private ChangeTracker tracker;
+    private int restarts;
+    private int resets;
+
+    /**
+     * Makes sure a server in its initial state is running, starting one if needed.
+     */
+    public synchronized void ensureRunning() throws IOException {
+        if (server == null || !server.isRunning()) {
+            restart();
+        }
+    }
+
+    /**
+     * Starts the server if needed and exercises the endpoints the scenarios use.
+     */
+    public synchronized void warmUp() throws IOException {
+        ensureRunning();
+        for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+            String type = FixtureSnapshot.TYPES[i % FixtureSnapshot.TYPES.length];
+            untracked().get("/" + type);
+            untracked().get("/" + type + "/1");
+        }
+    }
+
+    /**
+     * Request specification for scenario steps; every request made through it
+     * is tracked so it can be reverted.
+     */
+    public synchronized RequestSpecification given() {
+        return RestAssured.given().spec(spec).filter(tracker);
+    }
+
+    public synchronized String getBaseUri() {
+        return server.getBaseUri();
+    }
+
+    public synchronized int getResets() {
+        return resets;
+    }
+
+    public synchronized int getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Reverts what the last scenario changed. Falls back to a restart if the
+     * API alone cannot get the server back to its fixture set.
+     */
+    public synchronized void revertChanges() throws IOException {
+        if (server == null || !server.isRunning()) {
+            return;
+        }
+        try {
+            if (!tracker.isFixtureDeleted() && revertThroughApi()) {
+                resets++;
+                tracker.clear();
+                return;
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        restart();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    // ---------------- RESET ----------------
+
+    private boolean revertThroughApi() {
+        // 1. delete everything the scenario created
+        List<Runnable> deletes = new ArrayList<>();
+        for (String key : tracker.getCreated()) {
+            deletes.add(() -> untracked().delete("/" + key));
+        }
+        runInParallel(deletes);
+
+        // 2. put touched fixtures back: fields first, then links
+        List<Runnable> restores = new ArrayList<>();
+        for (String key : tracker.getTouchedFixtures()) {
+            restores.add(() -> restoreFixture(fixtures.get(key)));
+        }
+        runInParallel(restores);
+
+        // 3. baseline check; also sweeps up anything created outside the tracker
+        FixtureSnapshot current = FixtureSnapshot.capture(spec);
+        List<Runnable> strays = new ArrayList<>();
+        for (String key : current.getEntities().keySet()) {
+            if (!fixtures.contains(key)) {
+                strays.add(() -> untracked().delete("/" + key));
+            }
+        }
+        if (!strays.isEmpty()) {
+            runInParallel(strays);
+            current = FixtureSnapshot.capture(spec);
+        }
+        return matchesFixtures(current);
+    }
+
+    private void restoreFixture(FixtureSnapshot.Entity fixture) {
+        String path = "/" + fixture.getKey();
+        untracked().contentType(ContentType.JSON).body(fixture.toFieldsBody().toString()).post(path);
+
+        FixtureSnapshot.Entity current = FixtureSnapshot.Entity.from(fixture.getType(),
+                new JSONObject(untracked().get(path).asString())
+                        .getJSONArray(fixture.getType()).getJSONObject(0));
+
+        Set<String> relationships = new TreeSet<>(fixture.getRelationships().keySet());
+        relationships.addAll(current.getRelationships().keySet());
+        for (String relationship : relationships) {
+            Set<String> wanted = fixture.getRelationship(relationship);
+            Set<String> actual = current.getRelationship(relationship);
+            for (String id : wanted) {
+                if (!actual.contains(id)) {
+                    untracked().contentType(ContentType.JSON).body("{\"id\":\"" + id + "\"}")
+                            .post(path + "/" + relationship);
+                }
+            }
+            for (String id : actual) {
+                if (!wanted.contains(id)) {
+                    untracked().delete(path + "/" + relationship + "/" + id);
+                }
+            }
+        }
+    }
+
+    private boolean matchesFixtures(FixtureSnapshot current) {
+        if (!current.getEntities().keySet().equals(fixtures.getEntities().keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, FixtureSnapshot.Entity> entry : fixtures.getEntities().entrySet()) {
+            if (!entry.getValue().sameStateAs(current.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RequestSpecification untracked() {
+        return RestAssured.given().spec(spec);
+    }
+
+    private static void runInParallel(List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while resetting the server", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Reset request failed", e.getCause());
+            }
+        }
+    }
+
+    // ---------------- RESTART ----------------
+
+    private void restart() throws IOException {
+        if (server != null) {
+            server.stop();
+        }
+        // a fresh port per start: another fork may have bound the old one in the meantime,
+        // and onFreePort moves on if it loses the port again
+        server = ServerManager.onFreePort();
+        server.start();
+        restarts++;
+        spec = new RequestSpecBuilder().setBaseUri(server.getBaseUri()).build();
+        if (fixtures == null) {
+            fixtures = FixtureSnapshot.capture(spec);
+            tracker = new ChangeTracker(fixtures);
+        }
+        tracker.clear();
+    }
+}
@@ -0,0 +1,191 @@
+package storyTest;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Pool of pre-warmed {@link ScenarioServer}s for running scenarios in
+ * parallel. Each scenario leases one server for its whole run (the lease is
+ * bound to the scenario's thread) and hands it back once it has been reset,
+ * so two scenarios never share a server. The pool grows on demand if more
+ * scenarios run at once than were pre-warmed, so unless a parallelism is
+ * configured it only pre-warms a few: each server is a separate JVM.
+ * <p>
+ * Runners may be nested (the CLI workers each start their own Cucumber
+ * runtime), so the pool counts {@link #open} calls and only stops its
+ * servers when the last user has {@link #close closed} it.
+ */
+public final class ScenarioServerPool {
+
+    /** Same key as the Cucumber engine, so one setting sizes both the workers and the pool. */
+    public static final String PARALLELISM_PROPERTY = "cucumber.execution.parallel.config.fixed.parallelism";
+
+    /** Most servers pre-warmed without a configured parallelism. */
+    private static final int DEFAULT_PREWARMED = 4;
+
+    private static final BlockingQueue<ScenarioServer> idle = new LinkedBlockingQueue<>();
+    private static final List<ScenarioServer> all = new ArrayList<>();
+    private static final ThreadLocal<ScenarioServer> lease = new ThreadLocal<>();
+    private static int users;
+
+    private ScenarioServerPool() {
+    }
+
+    /**
+     * Number of scenarios expected to run at once: the configured Cucumber
+     * parallelism, or one per core.
+     */
+    public static int parallelism() {
+        return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Servers to pre-warm: the configured Cucumber parallelism, or else one
+     * per core but no more than there are features, nor than
+     * {@value #DEFAULT_PREWARMED}.
+     */
+    public static int prewarmed() {
+        if (Integer.getInteger(PARALLELISM_PROPERTY) != null) {
+            return parallelism();
+        }
+        return Math.max(1, Math.min(Math.min(parallelism(), DEFAULT_PREWARMED), featureCount()));
+    }
+
+    /**
+     * Registers a user of the pool; the first one starts and warms up
+     * {@link #prewarmed()} servers in parallel.
+     */
+    public static void open() throws IOException {
+        open(prewarmed());
+    }
+
+    /**
+     * Registers a user of the pool; the first one starts and warms up
+     * {@code servers} servers in parallel.
+     */
+    public static synchronized void open(int servers) throws IOException {
+        if (users++ > 0) {
+            return;
+        }
+        List<ScenarioServer> started = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < servers; i++) {
+                ScenarioServer server = new ScenarioServer();
+                started.add(server);
+                futures.add(executor.submit(() -> {
+                    server.warmUp();
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while starting the scenario servers", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not start a scenario server", e.getCause());
+            }
+        }
+        all.addAll(started);
+        idle.addAll(started);
+    }
+
+    /**
+     * Leases a server to the current thread until {@link #release()}; leasing
+     * again on the same thread returns the same server.
+     */
+    public static ScenarioServer lease() throws IOException {
+        ScenarioServer server = lease.get();
+        if (server == null) {
+            server = idle.poll();
+            if (server == null) {
+                server = new ScenarioServer();
+                synchronized (ScenarioServerPool.class) {
+                    all.add(server);
+                }
+            }
+            lease.set(server);
+        }
+        server.ensureRunning();
+        return server;
+    }
+
+    /**
+     * Server leased by the current thread.
+     */
+    public static ScenarioServer current() {
+        ScenarioServer server = lease.get();
+        if (server == null) {
+            throw new IllegalStateException("No scenario server leased on " + Thread.currentThread().getName());
+        }
+        return server;
+    }
+
+    /**
+     * Reverts the current thread's server to its fixtures and returns it to the pool.
+     */
+    public static void release() throws IOException {
+        ScenarioServer server = lease.get();
+        if (server == null) {
+            return;
+        }
+        lease.remove();
+        try {
+            server.revertChanges();
+        } finally {
+            idle.add(server);
+        }
+    }
+
+    /**
+     * Number of feature files on the classpath, or {@link Integer#MAX_VALUE}
+     * if they cannot be listed (e.g. from a jar).
+     */
+    private static int featureCount() {
+        URL features = ScenarioServerPool.class.getClassLoader().getResource("features");
+        if (features == null || !"file".equals(features.getProtocol())) {
+            return Integer.MAX_VALUE;
+        }
+        try (Stream<Path> files = Files.walk(Paths.get(features.toURI()))) {
+            return (int) files.filter(p -> p.toString().endsWith(".feature")).count();
+        } catch (IOException | URISyntaxException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Unregisters a user of the pool; the last one stops every server.
+     */
+    public static synchronized void close() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        int resets = 0;
+        int restarts = 0;
+        for (ScenarioServer server : all) {
+            resets += server.getResets();
+            restarts += server.getRestarts();
+            server.stop();
+        }
+        System.out.println("Scenario servers: " + all.size() + " instances, "
+                + resets + " API resets, " + restarts + " restarts");
+        all.clear();
+        idle.clear();
+    }
+}
@@ -1,58 +1,54 @@
 package storyTest;
 
 import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
 import io.cucumber.java.AfterAll;
+import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 
-import io.restassured.RestAssured;
-import static io.restassured.RestAssured.given;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.List;
 import java.util.Map;
 
 public class TodoStoryTest {
 
-    private static Process process;
     private Response response;
     private RequestSpecification request;
 
-    @Given("the service is running")
-    public void ensureServiceRunning() {
-        RestAssured.baseURI = "http://localhost:4567";
+    // Start the pre-warmed servers the scenarios lease from
+    @BeforeAll
+    public static void startServers() throws Exception {
+        ScenarioServerPool.open();
+    }
 
-        try {
-            // Check if service responds on base URI
-            HttpURLConnection connection = (HttpURLConnection) new URL(RestAssured.baseURI).openConnection();
-            connection.setRequestMethod("GET");
-            connection.connect();
-
-            // If reachable, shut it down gracefully before restarting
-            if (connection.getResponseCode() == 200) {
-                try { given().get("/shutdown"); } catch (Exception ignored) {}
-                Thread.sleep(1500);
-            }
-        } catch (IOException | InterruptedException e) {
-            // Service is not currently running — proceed to start it
-        }
+    // Each scenario gets a server of its own, so scenarios can run in parallel
+    @Before
+    public void leaseServer() throws Exception {
+        ScenarioServerPool.lease();
+    }
 
-        // Start the REST API service
+    @Given("the service is running")
+    public void ensureServiceRunning() {
         try {
-            process = new ProcessBuilder("java", "-jar", "runTodoManagerRestAPI-1.5.5.jar").start();
-            Thread.sleep(1750); // give it a moment to initialize
+            ScenarioServerPool.current().ensureRunning();
         } catch (Exception ex) {
             ex.printStackTrace();
             fail("Failed to start the TodoManager REST API service.");
         }
     }
 
+    // Put the server back to its fixture set and hand it to the next scenario
+    @After
+    public void revertScenarioChanges() throws Exception {
+        ScenarioServerPool.release();
+    }
+
     @Given("the following todos exist in the system:")
     public void verifyTodosExistInSystem(DataTable dataTable) {
         int[] todoIds = {1, 2};
@@ -83,11 +79,7 @@ public class TodoStoryTest {
 
     @AfterAll
     public static void killServer() {
-        try {
-            given().when().get("/shutdown");
-        }
-        catch (Exception ignored) {
-        }
+        ScenarioServerPool.close();
     }
 
 // -------------------------- CreateNewTodo.feature--------------------------
@@ -95,7 +87,7 @@ public class TodoStoryTest {
     @When("I send a POST request to {string} with title: {string} and description: {string}")
     public void postWithTitleAndDescription(String endpoint, String title, String description) {
         String body = String.format("{\"title\":\"%s\", \"description\":\"%s\"}", title, description);
-        request = RestAssured.given().header("Content-Type", "application/json").body(body);
+        request = given().header("Content-Type", "application/json").body(body);
         response = request.post("/" + endpoint);
     }
 
@@ -116,7 +108,7 @@ public class TodoStoryTest {
     @When("I send a POST request to {string} with title: {string} and empty description")
     public void postWithTitleOnly(String endpoint, String title) {
         String body = String.format("{\"title\":\"%s\", \"description\":null}", title);
-        request = RestAssured.given().header("Content-Type", "application/json").body(body);
+        request = given().header("Content-Type", "application/json").body(body);
         response = request.post("/" + endpoint);
     }
 
@@ -142,8 +134,7 @@ public class TodoStoryTest {
     public void putUpdateTodo(String endpoint, String title, String description) {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
         String payload = String.format("{\"title\":\"%s\",\"description\":\"%s\"}", title, description);
-        response = RestAssured
-                .given()
+        response = given()
                 .contentType("application/json")
                 .body(payload)
                 .when()
@@ -155,7 +146,7 @@ public class TodoStoryTest {
     @When("I send DELETE request to {string}")
     public void iSendADeleteRequestTo(String endpoint) {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
-        response = RestAssured.given().when().delete(path);
+        response = given().when().delete(path);
     }
 
     // Alternate Flow
@@ -164,20 +155,20 @@ public class TodoStoryTest {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
         String body = String.format("{\"title\":\"%s\",\"description\":\"%s\"}", title, description);
 
-        response = RestAssured.given()
+        response = given()
                 .contentType("application/json")
                 .body(body)
                 .post(path);
 
         // Extract new id, then delete it
         String id = response.jsonPath().getString("id");
-        response = RestAssured.given().delete("/todos/" + id);
+        response = given().delete("/todos/" + id);
     }
 
     @Then("the todo task located at {string} should be deleted")
     public void theTodoShouldBeDeleted(String endpoint) {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
-        Response check = RestAssured.given().when().get(path);
+        Response check = given().when().get(path);
         assertEquals(404, check.getStatusCode());
     }
 
@@ -186,14 +177,14 @@ public class TodoStoryTest {
     @When("I send GET request to {string}")
     public void aliasSendGet(String endpoint) {
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
-        response = io.restassured.RestAssured.given().get(path);
+        response = given().get(path);
     }
 
     // Alternate Flow
     @When("I send GET request to {string} with title parameter {string}")
     public void aliasSendGetWithTitle(String endpoint, String title) { // <— renamed method
         String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
-        response = io.restassured.RestAssured.given()
+        response = given()
                 .queryParam("title", title)
                 .get(path);
     }
@@ -216,7 +207,7 @@ public class TodoStoryTest {
         String suffix = (filter == null || filter.isEmpty())
                 ? ""
                 : (filter.startsWith("?") || filter.startsWith("&")) ? filter : "?" + filter;
-        response = io.restassured.RestAssured.given().get(path + suffix);
+        response = given().get(path + suffix);
     }
 
     // Body Assertions
@@ -252,5 +243,9 @@ public class TodoStoryTest {
             org.junit.jupiter.api.Assertions.assertEquals(row.get("doneStatus"), actualDone, "doneStatus mismatch for id=" + id);
         }
     }
-}
 
+    // every step request goes through the scenario server's change tracker
+    private static RequestSpecification given() {
+        return ScenarioServerPool.current().given();
+    }
+}
@@ -0,0 +1,96 @@
+package unitTest;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Apache HttpClient with a pooled, keep-alive connection manager. Every new
+ * socket goes through a counting socket factory, so reuse is measured exactly.
+ */
+public class ApacheTransport implements HttpTransport {
+
+    private final String baseUri;
+    private final CloseableHttpClient client;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    /**
+     * @param baseUri        e.g. http://localhost:4567
+     * @param maxConnections pool size; should cover the number of concurrent callers
+     */
+    public ApacheTransport(String baseUri, int maxConnections) {
+        this.baseUri = baseUri;
+
+        Registry<ConnectionSocketFactory> sockets = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new PlainConnectionSocketFactory() {
+                    @Override
+                    public Socket createSocket(HttpContext context) throws IOException {
+                        connectionsOpened.incrementAndGet();
+                        return super.createSocket(context);
+                    }
+                })
+                .build();
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(sockets);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        this.client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public TransportResponse send(String method, String path, byte[] body) throws IOException {
+        RequestBuilder request = RequestBuilder.create(method).setUri(baseUri + path);
+        if (body != null) {
+            request.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        }
+
+        requests.incrementAndGet();
+        try (CloseableHttpResponse response = client.execute(request.build())) {
+            // consuming the entity fully is what releases the connection back to the pool
+            byte[] bytes = response.getEntity() == null
+                    ? new byte[0]
+                    : EntityUtils.toByteArray(response.getEntity());
+            return new TransportResponse(response.getStatusLine().getStatusCode(), bytes);
+        }
+    }
+
+    @Override
+    public ConnectionStats getStats() {
+        return new ConnectionStats(requests.get(), connectionsOpened.get());
+    }
+
+    @Override
+    public String getName() {
+        return "apache";
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException ignored) {
+        }
+        connectionManager.close();
+    }
+}
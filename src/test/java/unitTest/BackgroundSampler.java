@@ -0,0 +1,209 @@
+package unitTest;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples a {@link ProcessMetrics} on a daemon thread at a fixed interval and
+ * keeps the samples in a ring buffer. Benchmark code times its work on its own
+ * and asks for the server's usage over any [start, end] window afterwards, so
+ * sampling never adds wall time to a measurement.
+ */
+public class BackgroundSampler implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final ProcessMetrics metrics;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // ring buffer, one slot per sample
+    private final long[] timestamps;
+    private final long[] cpuTicks;
+    private final long[] rssBytes;
+    private final long[] gcCounts;
+    private final long[] gcTimesMs;
+    private long written;
+
+    /**
+     * @param metrics        process to sample; closed together with this sampler
+     * @param intervalMillis time between two samples
+     */
+    public BackgroundSampler(ProcessMetrics metrics, long intervalMillis) {
+        this(metrics, intervalMillis, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param metrics        process to sample; closed together with this sampler
+     * @param intervalMillis time between two samples
+     * @param capacity       number of samples kept before the oldest are overwritten
+     */
+    public BackgroundSampler(ProcessMetrics metrics, long intervalMillis, int capacity) {
+        this.metrics = metrics;
+        this.intervalMillis = intervalMillis;
+        this.timestamps = new long[capacity];
+        this.cpuTicks = new long[capacity];
+        this.rssBytes = new long[capacity];
+        this.gcCounts = new long[capacity];
+        this.gcTimesMs = new long[capacity];
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "server-metrics-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::sampleNow, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        metrics.close();
+    }
+
+    /**
+     * Takes a sample immediately and appends it to the ring buffer.
+     */
+    public synchronized void sampleNow() {
+        ProcessMetrics.Snapshot s = metrics.sample();
+        int slot = (int) (written % timestamps.length);
+        timestamps[slot] = System.currentTimeMillis();
+        cpuTicks[slot] = s.getCpuTicks();
+        rssBytes[slot] = s.getRssBytes();
+        gcCounts[slot] = s.getGcCount();
+        gcTimesMs[slot] = s.getGcTimeMs();
+        written++;
+    }
+
+    /**
+     * Summarizes the server's usage over a window measured with
+     * {@link System#currentTimeMillis()}. The window is widened to the nearest
+     * samples around it; if no sample exists after {@code endMillis} yet, one
+     * is taken on the spot.
+     *
+     * @param startMillis start of the window
+     * @param endMillis   end of the window
+     * @return usage over the window
+     */
+    public synchronized Interval interval(long startMillis, long endMillis) {
+        if (written == 0 || timestamps[slotOf(written - 1)] < endMillis) {
+            sampleNow();
+        }
+
+        long oldest = Math.max(0, written - timestamps.length);
+        long first = oldest;
+        for (long i = written - 1; i >= oldest; i--) {
+            if (timestamps[slotOf(i)] <= startMillis) {
+                first = i;
+                break;
+            }
+        }
+        long last = written - 1;
+        for (long i = first; i < written; i++) {
+            if (timestamps[slotOf(i)] >= endMillis) {
+                last = i;
+                break;
+            }
+        }
+
+        int a = slotOf(first);
+        int b = slotOf(last);
+        long peakRss = -1;
+        for (long i = first; i <= last; i++) {
+            peakRss = Math.max(peakRss, rssBytes[slotOf(i)]);
+        }
+
+        double cpuPercent = -1;
+        long wallMillis = timestamps[b] - timestamps[a];
+        if (cpuTicks[a] >= 0 && cpuTicks[b] >= 0 && wallMillis > 0) {
+            cpuPercent = ProcessMetrics.ticksToSeconds(cpuTicks[b] - cpuTicks[a]) / (wallMillis / 1000.0) * 100.0;
+        }
+
+        return new Interval(
+                startMillis,
+                endMillis,
+                (int) (last - first + 1),
+                cpuPercent,
+                delta(rssBytes[a], rssBytes[b]),
+                peakRss,
+                delta(gcCounts[a], gcCounts[b]),
+                delta(gcTimesMs[a], gcTimesMs[b])
+        );
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % timestamps.length);
+    }
+
+    private static long delta(long before, long after) {
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+
+    /**
+     * Server usage over one [start, end] window. Values that could not be
+     * sampled are -1.
+     */
+    public static final class Interval {
+        private final long startMillis;
+        private final long endMillis;
+        private final int samples;
+        private final double cpuPercent;
+        private final long rssDeltaBytes;
+        private final long peakRssBytes;
+        private final long gcCount;
+        private final long gcTimeMs;
+
+        Interval(long startMillis, long endMillis, int samples, double cpuPercent,
+                 long rssDeltaBytes, long peakRssBytes, long gcCount, long gcTimeMs) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.samples = samples;
+            this.cpuPercent = cpuPercent;
+            this.rssDeltaBytes = rssDeltaBytes;
+            this.peakRssBytes = peakRssBytes;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        /** Average server CPU over the window, as a percentage of one core. */
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+
+        public long getRssDeltaBytes() {
+            return rssDeltaBytes;
+        }
+
+        public long getPeakRssBytes() {
+            return peakRssBytes;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcTimeMs() {
+            return gcTimeMs;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package unitTest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Everything a benchmark class runs against: its own server on a free port,
+ * a {@link BackgroundSampler} on the server process, the transport and the
+ * {@link ResultSink} for the suite. Started once per class in
+ * {@code @BeforeAll} and closed in {@code @AfterAll}; {@link #close()} stops
+ * the pieces in reverse order.
+ */
+public final class BenchmarkFixture implements AutoCloseable {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 50;
+
+    private final ServerManager server;
+    private BackgroundSampler sampler;
+    private HttpTransport transport;
+    private ResultSink results;
+
+    private BenchmarkFixture(ServerManager server) {
+        this.server = server;
+    }
+
+    /**
+     * Default server, sampled every 50 ms, through the transport from {@code perf.transport}.
+     *
+     * @param suite name of the results file, e.g. "listScaling"
+     */
+    public static BenchmarkFixture start(String suite) throws IOException {
+        return start(suite, ServerManager.onFreePort());
+    }
+
+    /**
+     * @param server configured but not yet started server, e.g. with JVM flags or a GC log
+     */
+    public static BenchmarkFixture start(String suite, ServerManager server) throws IOException {
+        return start(suite, server, SAMPLE_INTERVAL_MILLIS, HttpTransport::fromSystemProperty);
+    }
+
+    /**
+     * @param sampleMillis interval of the server process sampler
+     * @param transport    creates the transport from the server's base URI
+     */
+    public static BenchmarkFixture start(String suite, ServerManager server, long sampleMillis,
+                                         Function<String, HttpTransport> transport) throws IOException {
+        BenchmarkFixture fixture = new BenchmarkFixture(server);
+        try {
+            server.start();
+            fixture.sampler = new BackgroundSampler(new ProcessMetrics(server.getProcess()), sampleMillis);
+            fixture.sampler.start();
+            fixture.transport = transport.apply(server.getBaseUri());
+            fixture.results = ResultSink.open(suite, fixture.transport.getName());
+            fixture.results.setServerJvmFlags(String.join(" ", server.getJvmFlags()));
+        } catch (IOException | RuntimeException e) {
+            fixture.close();
+            throw e;
+        }
+        return fixture;
+    }
+
+    /**
+     * Server JVM flags from a space-separated system property.
+     *
+     * @param defaults flags if the property is unset, e.g. "-Xmx1g"
+     */
+    public static List<String> serverFlags(String property, String defaults) {
+        String flags = System.getProperty(property, defaults).trim();
+        return flags.isEmpty() ? Collections.emptyList() : Arrays.asList(flags.split("\\s+"));
+    }
+
+    public ServerManager getServer() {
+        return server;
+    }
+
+    public BackgroundSampler getSampler() {
+        return sampler;
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    public ResultSink getResults() {
+        return results;
+    }
+
+    /** Server samples between two wall-clock times, as {@link BackgroundSampler#interval}. */
+    public BackgroundSampler.Interval interval(long fromMillis, long toMillis) {
+        return sampler.interval(fromMillis, toMillis);
+    }
+
+    /** Appends a row to the suite's results. */
+    public void record(ResultRecord record) throws IOException {
+        results.record(record);
+    }
+
+    @Override
+    public void close() {
+        if (sampler != null) {
+            sampler.close();
+        }
+        if (transport != null) {
+            transport.close();
+        }
+        if (results != null) {
+            try {
+                results.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        server.stop();
+    }
+}
@@ -0,0 +1,217 @@
+package unitTest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Runs one benchmark step (e.g. "update 400 todos") repeatedly: warm-up
+ * iterations until throughput is stable, then K measured iterations whose
+ * mean and 95% confidence interval are reported. Steady state is declared
+ * once the coefficient of variation of the last few warm-up throughputs drops
+ * below a threshold, or when the warm-up budget runs out.
+ * Defaults can be overridden with {@code -Dperf.iterations}, {@code -Dperf.warmup.max}
+ * and {@code -Dperf.cv}.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * The measured work. Implementations time each request themselves and
+     * record it into {@code latencies}; whole-step timing is done by the runner.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run(int numObjects, LatencyHistogram latencies) throws Exception;
+    }
+
+    /**
+     * Untimed setup for one iteration, e.g. creating the entities a delete step removes.
+     */
+    @FunctionalInterface
+    public interface Preparation<T> {
+        T prepare(int numObjects) throws Exception;
+    }
+
+    /**
+     * Measured work that consumes what its {@link Preparation} produced.
+     */
+    @FunctionalInterface
+    public interface PreparedStep<T> {
+        void run(T prepared, int numObjects, LatencyHistogram latencies) throws Exception;
+    }
+
+    /**
+     * Untimed teardown after one iteration, e.g. deleting what the step created.
+     */
+    @FunctionalInterface
+    public interface Cleanup<T> {
+        void cleanup(T prepared) throws Exception;
+    }
+
+    private static final int STABILITY_WINDOW = 3;
+
+    private final int measuredIterations;
+    private final int maxWarmupIterations;
+    private final double cvThreshold;
+
+    /**
+     * @param measuredIterations  K, the number of iterations that are reported
+     * @param maxWarmupIterations warm-up budget if throughput never stabilizes
+     * @param cvThreshold         coefficient of variation under which throughput counts as stable
+     */
+    public BenchmarkRunner(int measuredIterations, int maxWarmupIterations, double cvThreshold) {
+        if (measuredIterations < 1) {
+            throw new IllegalArgumentException("measuredIterations must be at least 1");
+        }
+        this.measuredIterations = measuredIterations;
+        this.maxWarmupIterations = Math.max(STABILITY_WINDOW, maxWarmupIterations);
+        this.cvThreshold = cvThreshold;
+    }
+
+    /**
+     * Runner configured from {@code perf.*} system properties.
+     */
+    public static BenchmarkRunner fromSystemProperties() {
+        return new BenchmarkRunner(
+                Integer.getInteger("perf.iterations", 3),
+                Integer.getInteger("perf.warmup.max", 6),
+                Double.parseDouble(System.getProperty("perf.cv", "0.10"))
+        );
+    }
+
+    public Result run(int numObjects, Step step) throws Exception {
+        return run(numObjects, n -> null, (ignored, n, latencies) -> step.run(n, latencies));
+    }
+
+    public <T> Result run(int numObjects, Preparation<T> preparation, PreparedStep<T> step) throws Exception {
+        return run(numObjects, preparation, step, prepared -> { });
+    }
+
+    public <T> Result run(int numObjects, Preparation<T> preparation, PreparedStep<T> step,
+                          Cleanup<T> cleanup) throws Exception {
+        // ---- warm-up until steady state ----
+        Deque<Double> recentThroughput = new ArrayDeque<>();
+        int warmups = 0;
+        boolean steady = false;
+        while (warmups < maxWarmupIterations) {
+            T prepared = preparation.prepare(numObjects);
+            long start = System.nanoTime();
+            step.run(prepared, numObjects, new LatencyHistogram());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            cleanup.cleanup(prepared);
+            warmups++;
+
+            recentThroughput.addLast(seconds > 0 ? numObjects / seconds : 0.0);
+            if (recentThroughput.size() > STABILITY_WINDOW) {
+                recentThroughput.removeFirst();
+            }
+            if (recentThroughput.size() == STABILITY_WINDOW
+                    && Statistics.coefficientOfVariation(toArray(recentThroughput)) < cvThreshold) {
+                steady = true;
+                break;
+            }
+        }
+
+        // ---- measured iterations ----
+        LatencyHistogram latencies = new LatencyHistogram();
+        double[] durationsMs = new double[measuredIterations];
+        long measuredStartMillis = 0;
+        long measuredEndMillis = 0;
+        for (int k = 0; k < measuredIterations; k++) {
+            T prepared = preparation.prepare(numObjects);
+            long startMillis = System.currentTimeMillis();
+            long start = System.nanoTime();
+            step.run(prepared, numObjects, latencies);
+            durationsMs[k] = (System.nanoTime() - start) / 1e6;
+            measuredEndMillis = System.currentTimeMillis();
+            if (k == 0) {
+                measuredStartMillis = startMillis;
+            }
+            cleanup.cleanup(prepared);
+        }
+
+        return new Result(numObjects, warmups, steady, durationsMs, latencies,
+                measuredStartMillis, measuredEndMillis);
+    }
+
+    private static double[] toArray(Deque<Double> values) {
+        List<Double> list = new ArrayList<>(values);
+        double[] array = new double[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Measured iterations of one step.
+     */
+    public static final class Result {
+        private final int numObjects;
+        private final int warmupIterations;
+        private final boolean steadyState;
+        private final double[] durationsMs;
+        private final LatencyHistogram latencies;
+        private final long startMillis;
+        private final long endMillis;
+
+        Result(int numObjects, int warmupIterations, boolean steadyState, double[] durationsMs,
+               LatencyHistogram latencies, long startMillis, long endMillis) {
+            this.numObjects = numObjects;
+            this.warmupIterations = warmupIterations;
+            this.steadyState = steadyState;
+            this.durationsMs = durationsMs;
+            this.latencies = latencies;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        public int getNumObjects() {
+            return numObjects;
+        }
+
+        public int getWarmupIterations() {
+            return warmupIterations;
+        }
+
+        /** False if the warm-up budget ran out before throughput stabilized. */
+        public boolean isSteadyState() {
+            return steadyState;
+        }
+
+        public int getMeasuredIterations() {
+            return durationsMs.length;
+        }
+
+        public double getMeanDurationMs() {
+            return Statistics.mean(durationsMs);
+        }
+
+        /** Half width of the 95% confidence interval of the mean duration. */
+        public double getDurationCi95Ms() {
+            return Statistics.confidenceHalfWidth95(durationsMs);
+        }
+
+        /** Operations per second, averaged over the measured iterations. */
+        public double getThroughput() {
+            double meanMs = getMeanDurationMs();
+            return meanMs > 0 ? numObjects / (meanMs / 1000.0) : 0.0;
+        }
+
+        /** Per-request latencies of all measured iterations. */
+        public LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        /** Wall-clock start of the first measured iteration. */
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        /** Wall-clock end of the last measured iteration. */
+        public long getEndMillis() {
+            return endMillis;
+        }
+    }
+}
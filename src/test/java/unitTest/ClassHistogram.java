@@ -0,0 +1,120 @@
+package unitTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Live objects of a JVM by class, from {@code jcmd GC.class_histogram},
+ * which runs a full GC first, so the totals are what the heap retains:
+ * <pre>
+ *  num     #instances         #bytes  class name (module)
+ * -------------------------------------------------------
+ *    1:         13765         817800  [B (java.base@21.0.1)
+ *  286:             5            120  uk.co.compendiumdev.thingifier.core.domain.instances.ThingInstance
+ * Total         52432        2589064
+ * </pre>
+ * Shallow sizes only: a class's bytes are its own instances, not what they
+ * reference.
+ */
+public class ClassHistogram {
+
+    /** The server's entity class; every todo, project and category is one. */
+    public static final String THING_INSTANCE = "uk.co.compendiumdev.thingifier.core.domain.instances.ThingInstance";
+    /** One per relationship link, in each direction. */
+    public static final String RELATIONSHIP_INSTANCE =
+            "uk.co.compendiumdev.thingifier.core.domain.instances.RelationshipInstance";
+
+    private static final Pattern ROW = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)(?: \\(.*\\))?$");
+    private static final Pattern TOTAL = Pattern.compile("^Total\\s+(\\d+)\\s+(\\d+)$");
+
+    private final Map<String, long[]> byClass;
+    private final long totalInstances;
+    private final long totalBytes;
+
+    ClassHistogram(Map<String, long[]> byClass, long totalInstances, long totalBytes) {
+        this.byClass = byClass;
+        this.totalInstances = totalInstances;
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Takes a histogram of the live objects in {@code process}, which must be a HotSpot JVM.
+     */
+    public static ClassHistogram capture(Process process) throws IOException {
+        return parse(Jcmd.run(process, "GC.class_histogram"));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the output has no {@code Total} line
+     */
+    static ClassHistogram parse(String output) {
+        Map<String, long[]> byClass = new LinkedHashMap<>();
+        long totalInstances = -1;
+        long totalBytes = -1;
+        for (String line : output.split("\\R")) {
+            Matcher row = ROW.matcher(line);
+            if (row.matches()) {
+                // a class name can appear once per class loader
+                long[] counts = byClass.computeIfAbsent(row.group(3), k -> new long[2]);
+                counts[0] += Long.parseLong(row.group(1));
+                counts[1] += Long.parseLong(row.group(2));
+                continue;
+            }
+            Matcher total = TOTAL.matcher(line.trim());
+            if (total.matches()) {
+                totalInstances = Long.parseLong(total.group(1));
+                totalBytes = Long.parseLong(total.group(2));
+            }
+        }
+        if (totalBytes < 0) {
+            throw new IllegalArgumentException("Not a class histogram: " + output.lines().findFirst().orElse(""));
+        }
+        return new ClassHistogram(byClass, totalInstances, totalBytes);
+    }
+
+    /** Live heap, in bytes. */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getTotalInstances() {
+        return totalInstances;
+    }
+
+    /** Live instances of a class, by its binary name; 0 if it has none. */
+    public long getInstances(String className) {
+        long[] counts = byClass.get(className);
+        return counts == null ? 0 : counts[0];
+    }
+
+    public long getBytes(String className) {
+        long[] counts = byClass.get(className);
+        return counts == null ? 0 : counts[1];
+    }
+
+    /**
+     * Classes whose live bytes differ most between {@code before} and this
+     * histogram, largest growth first.
+     */
+    public List<String> topGrowth(ClassHistogram before, int count) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(byClass.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[1] - before.getBytes(b.getKey()),
+                a.getValue()[1] - before.getBytes(a.getKey())));
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : entries.subList(0, Math.min(count, entries.size()))) {
+            long bytes = entry.getValue()[1] - before.getBytes(entry.getKey());
+            if (bytes <= 0) {
+                break;
+            }
+            lines.add(String.format("%+12d B %+10d  %s", bytes,
+                    entry.getValue()[0] - before.getInstances(entry.getKey()), entry.getKey()));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+}
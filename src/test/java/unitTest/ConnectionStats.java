@@ -0,0 +1,57 @@
+package unitTest;
+
+/**
+ * How many requests a transport sent, how many TCP connections it had to
+ * open for them, and how many went out pipelined: written on a connection
+ * before the response to the previous request on it was read. A connection
+ * count of -1 means the client does not expose it.
+ */
+public class ConnectionStats {
+
+    private final long requests;
+    private final long connectionsOpened;
+    private final long pipelinedRequests;
+
+    public ConnectionStats(long requests, long connectionsOpened) {
+        this(requests, connectionsOpened, 0);
+    }
+
+    public ConnectionStats(long requests, long connectionsOpened, long pipelinedRequests) {
+        this.requests = requests;
+        this.connectionsOpened = connectionsOpened;
+        this.pipelinedRequests = pipelinedRequests;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    public long getPipelinedRequests() {
+        return pipelinedRequests;
+    }
+
+    /**
+     * Fraction of requests that went over an already open connection, or -1
+     * if unknown.
+     */
+    public double getReuseRatio() {
+        if (connectionsOpened < 0 || requests == 0) {
+            return -1;
+        }
+        return Math.max(0.0, 1.0 - (double) connectionsOpened / requests);
+    }
+
+    /**
+     * Usage between an earlier snapshot and this one.
+     */
+    public ConnectionStats since(ConnectionStats earlier) {
+        long opened = connectionsOpened < 0 || earlier.connectionsOpened < 0
+                ? -1
+                : connectionsOpened - earlier.connectionsOpened;
+        return new ConnectionStats(requests - earlier.requests, opened, pipelinedRequests - earlier.pipelinedRequests);
+    }
+}
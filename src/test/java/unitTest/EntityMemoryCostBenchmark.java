@@ -0,0 +1,260 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.javafaker.Faker;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Server heap per todo, project and category, for capacity planning. Each
+ * step adds a controlled population (same text length, same number of
+ * links) and reads the live heap with a {@link ClassHistogram} before and
+ * after, which forces a full GC each time; the difference divided by the
+ * population is that shape's cost per entity. Payloads come from
+ * {@link RandomDataGenerator}, cut to exact title and description lengths.
+ * <p>
+ * Two sweeps, each fitted with {@link Statistics#linearFit}:
+ * <ul>
+ *   <li>text: every entity type at several title + description lengths,
+ *       without links, giving a base cost and a cost per character;</li>
+ *   <li>links: todos with 0..n categories, and projects with 0..n tasks,
+ *       giving the cost of one link, both ends included.</li>
+ * </ul>
+ * Together they form the per-entity formula. Applied to a target store
+ * ({@code perf.memory.target.*}) and the empty server's own heap, it gives
+ * the live heap to expect and an {@code -Xmx} with GC headroom
+ * ({@code perf.memory.headroom}, default 2x live). The formula and sizing
+ * are printed and written to {@code entity-memory-<runId>.txt} in the results
+ * directory. The costs include whatever the server retains per request, as
+ * they would in production.
+ * <p>
+ * Tagged {@code benchmark}. Population size, text lengths and link counts
+ * come from {@code perf.memory.*}.
+ */
+@Tag("benchmark")
+public class EntityMemoryCostBenchmark {
+
+    private static final int WORKERS = 16;
+
+    private static BenchmarkFixture fixture;
+    private static GraphWorkload graphs;
+    private static ClassHistogram emptyServer;
+
+    private final Faker faker = new Faker(new Random(PayloadCorpus.DEFAULT_SEED));
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("entityMemory", ServerManager.onFreePort(
+                BenchmarkFixture.serverFlags("perf.memory.serverJvmFlags", "-Xmx1g")));
+        graphs = new GraphWorkload(fixture.getTransport(), WORKERS);
+        emptyServer = ClassHistogram.capture(fixture.getServer().getProcess());
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldModelHeapBytesPerEntity() throws Exception {
+        int population = Integer.getInteger("perf.memory.population", 2000);
+        int[] textLengths = intList("perf.memory.textLengths", "32,256,1024,4096");
+        int[] linkCounts = intList("perf.memory.links", "0,1,2,4,8");
+        int baseText = textLengths[0];
+
+        // a first population without a row, so class loading and server caches are not billed to the first step
+        byte[][] warmUp = payloads(population, i -> todo(baseText, new String[0]));
+        assertEquals(population, new StoreSeeder(fixture.getTransport(), WORKERS)
+                .seed("todos", population, i -> warmUp[i]).getCreated(), "server stopped accepting todos");
+
+        // ---- text sweep ----
+        Statistics.LinearFit todoText = textSweep("todos", population, textLengths,
+                chars -> todo(chars, new String[0]));
+        Statistics.LinearFit projectText = textSweep("projects", population, textLengths,
+                chars -> project(chars, new String[0]));
+        Statistics.LinearFit categoryText = textSweep("categories", population, textLengths,
+                chars -> RandomDataGenerator.createRandomCategory(faker, titleLength(chars),
+                        chars - titleLength(chars)));
+
+        // ---- link sweep ----
+        int maxLinks = linkCounts[linkCounts.length - 1];
+        String[] categories = graphs.createCategories(maxLinks);
+        double[] x = new double[linkCounts.length];
+        double[] todoBytes = new double[linkCounts.length];
+        double[] projectBytes = new double[linkCounts.length];
+        for (int k = 0; k < linkCounts.length; k++) {
+            int links = linkCounts[k];
+            x[k] = links;
+            String[] linked = Arrays.copyOf(categories, links);
+            todoBytes[k] = measure("todos", population, baseText, links, i -> todo(baseText, linked));
+
+            // every project gets its own tasks, created before the step so they are not billed to it
+            String[] tasks = links == 0 ? new String[0] : graphs.createTodos(population * links);
+            projectBytes[k] = measure("projects", population, baseText, links,
+                    i -> project(baseText, Arrays.copyOfRange(tasks, i * links, (i + 1) * links)));
+        }
+        Statistics.LinearFit categoryLink = Statistics.linearFit(x, todoBytes);
+        Statistics.LinearFit taskLink = Statistics.linearFit(x, projectBytes);
+
+        String report = formatModel(todoText, projectText, categoryText, categoryLink, taskLink);
+        System.out.println(report);
+        Path file = Paths.get(System.getProperty("perf.results.dir", "build/perf-results"),
+                "entity-memory-" + RunInfo.current().getRunId() + ".txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(todoText.getSlope() > 0, "longer todo text should cost more heap");
+        assertTrue(categoryLink.getSlope() > 0, "category links should cost heap");
+    }
+
+    // ---------- measurement ----------
+
+    /**
+     * Fits bytes per entity against title + description length, without links.
+     */
+    private Statistics.LinearFit textSweep(String collection, int population, int[] textLengths,
+                                           IntFunction<JSONObject> payload) throws Exception {
+        double[] x = new double[textLengths.length];
+        double[] y = new double[textLengths.length];
+        for (int t = 0; t < textLengths.length; t++) {
+            int chars = textLengths[t];
+            x[t] = chars;
+            y[t] = measure(collection, population, chars, 0, i -> payload.apply(chars));
+        }
+        return Statistics.linearFit(x, y);
+    }
+
+    /**
+     * Adds {@code population} entities and returns the live heap they added, per entity.
+     */
+    private double measure(String collection, int population, int textChars, int links,
+                           IntFunction<JSONObject> payload) throws Exception {
+        byte[][] payloads = payloads(population, payload);
+
+        ClassHistogram before = ClassHistogram.capture(fixture.getServer().getProcess());
+        StoreSeeder.Result seeded = new StoreSeeder(fixture.getTransport(), WORKERS)
+                .seed(collection, population, i -> payloads[i]);
+        assertEquals(population, seeded.getCreated(), "server stopped accepting " + collection);
+        ClassHistogram after = ClassHistogram.capture(fixture.getServer().getProcess());
+        assertEquals(population, after.getInstances(ClassHistogram.THING_INSTANCE)
+                - before.getInstances(ClassHistogram.THING_INSTANCE), "live entities added");
+
+        double bytesPerEntity = (double) (after.getTotalBytes() - before.getTotalBytes()) / population;
+        fixture.record(new ResultRecord(singular(collection) + "Memory")
+                .set("numObjects", population)
+                .set("workers", WORKERS)
+                .set("requests", population)
+                .set("durationMs", seeded.getEndMillis() - seeded.getStartMillis())
+                .set("entityTextChars", textChars)
+                .set("entityLinks", links)
+                .set("bytesPerEntity", bytesPerEntity)
+                .server(fixture.interval(seeded.getStartMillis(), seeded.getEndMillis()))
+                .liveHeap(after));
+        return bytesPerEntity;
+    }
+
+    /**
+     * Builds every payload up front, since the seeder's workers must not share the {@link Faker}.
+     */
+    private static byte[][] payloads(int population, IntFunction<JSONObject> payload) {
+        byte[][] payloads = new byte[population][];
+        for (int i = 0; i < population; i++) {
+            payloads[i] = payload.apply(i).toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return payloads;
+    }
+
+    // ---------- model ----------
+
+    private static String formatModel(Statistics.LinearFit todoText, Statistics.LinearFit projectText,
+                                      Statistics.LinearFit categoryText, Statistics.LinearFit categoryLink,
+                                      Statistics.LinearFit taskLink) {
+        long todos = Long.getLong("perf.memory.target.todos", 1_000_000);
+        long projects = Long.getLong("perf.memory.target.projects", 10_000);
+        long categories = Long.getLong("perf.memory.target.categories", 100);
+        int textChars = Integer.getInteger("perf.memory.target.textChars", 256);
+        int categoriesPerTodo = Integer.getInteger("perf.memory.target.categoriesPerTodo", 1);
+        int tasksPerProject = Integer.getInteger("perf.memory.target.tasksPerProject", 100);
+        double headroom = Double.parseDouble(System.getProperty("perf.memory.headroom", "2"));
+
+        double todoBytes = todoText.predict(textChars) + categoryLink.getSlope() * categoriesPerTodo;
+        double projectBytes = projectText.predict(textChars) + taskLink.getSlope() * tasksPerProject;
+        double categoryBytes = categoryText.predict(textChars);
+        double liveBytes = emptyServer.getTotalBytes() + todos * todoBytes + projects * projectBytes
+                + categories * categoryBytes;
+        long xmxMb = (long) Math.ceil(liveBytes * headroom / (64 << 20)) * 64;
+
+        StringBuilder model = new StringBuilder("Server heap per entity (chars = title + description length)\n");
+        model.append(String.format("  todo     = %7.1f + %5.3f * chars + %6.1f * categories   B   (R^2 %.3f, %.3f)%n",
+                todoText.getIntercept(), todoText.getSlope(), categoryLink.getSlope(),
+                todoText.getRSquared(), categoryLink.getRSquared()));
+        model.append(String.format("  project  = %7.1f + %5.3f * chars + %6.1f * tasks        B   (R^2 %.3f, %.3f)%n",
+                projectText.getIntercept(), projectText.getSlope(), taskLink.getSlope(),
+                projectText.getRSquared(), taskLink.getRSquared()));
+        model.append(String.format("  category = %7.1f + %5.3f * chars                         B   (R^2 %.3f)%n",
+                categoryText.getIntercept(), categoryText.getSlope(), categoryText.getRSquared()));
+        model.append(String.format("  empty server: %d B live%n", emptyServer.getTotalBytes()));
+        model.append(String.format("Sizing for %d todos (%d categories each), %d projects (%d tasks each) and"
+                        + " %d categories at %d chars of text:%n",
+                todos, categoriesPerTodo, projects, tasksPerProject, categories, textChars));
+        model.append(String.format("  live heap %.0f MB; with %.1fx GC headroom: -Xmx%dm%n",
+                liveBytes / 1048576.0, headroom, xmxMb));
+        return model.toString();
+    }
+
+    // ---------- payloads ----------
+
+    private JSONObject todo(int textChars, String[] categoryIds) {
+        JSONObject todo = RandomDataGenerator.createRandomTodo(faker, titleLength(textChars),
+                textChars - titleLength(textChars));
+        if (categoryIds.length > 0) {
+            todo.put("categories", idList(categoryIds));
+        }
+        return todo;
+    }
+
+    private JSONObject project(int textChars, String[] taskIds) {
+        JSONObject project = RandomDataGenerator.createRandomProject(faker, titleLength(textChars),
+                textChars - titleLength(textChars));
+        if (taskIds.length > 0) {
+            project.put("tasks", idList(taskIds));
+        }
+        return project;
+    }
+
+    /** A quarter of the text goes into the title. */
+    private static int titleLength(int textChars) {
+        return Math.max(1, textChars / 4);
+    }
+
+    private static JSONArray idList(String[] ids) {
+        JSONArray list = new JSONArray();
+        for (String id : ids) {
+            list.put(new JSONObject().put("id", id));
+        }
+        return list;
+    }
+
+    private static String singular(String collection) {
+        return collection.equals("categories") ? "category" : collection.substring(0, collection.length() - 1);
+    }
+
+    private static int[] intList(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,225 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Cost of the list filters ({@code GET /todos?field=value}) as the store
+ * grows, at three selectivities: a unique title (one match), a shared
+ * description (a tenth of the store) and {@code doneStatus=false} (all of
+ * it). Every filter is also answered client-side by fetching the full list
+ * and filtering the stream, which is what a caller would do without the
+ * filter. From the latency-vs-N curves the benchmark infers whether the
+ * server scans (latency grows with N even for one match) or looks values up
+ * (flat), and where filtering client-side would become the cheaper option.
+ * <p>
+ * Tagged {@code benchmark}, so it only runs with {@code ./gradlew benchmark}.
+ * Sizes come from {@code perf.filter.sizes}.
+ */
+@Tag("benchmark")
+public class FilterScalingBenchmark {
+
+    private static final int SEED_WORKERS = 32;
+    private static final int DESCRIPTION_GROUPS = 10;
+    // power-law exponent below which latency counts as independent of the store size
+    static final double INDEX_EXPONENT = 0.3;
+
+    private static BenchmarkFixture fixture;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("filterScaling");
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldCompareServerAndClientFilteringAcrossStoreSizes() throws Exception {
+        int[] storeSizes = Arrays.stream(System.getProperty("perf.filter.sizes",
+                        "1000,3000,10000,30000,100000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .sorted()
+                .toArray();
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
+        StoreSeeder seeder = new StoreSeeder(fixture.getTransport(), SEED_WORKERS);
+
+        // seeded todos: unique title, one of ten descriptions, never done;
+        // the fixtures add two todos that are not done and match no other filter
+        int fixtures = StreamingExtractor.count(fixture.getTransport().send("GET", "/todos", null).getBody(), "todos");
+        List<Filter> filters = Arrays.asList(
+                new Filter("uniqueTitle", "title", n -> "filter-" + (n / 2), n -> 1),
+                new Filter("sharedDescription", "description", n -> "group-3",
+                        n -> n / DESCRIPTION_GROUPS + (n % DESCRIPTION_GROUPS > 3 ? 1 : 0)),
+                new Filter("sharedDoneStatus", "doneStatus", n -> "false", n -> n + fixtures)
+        );
+
+        int seeded = 0;
+        for (int size : storeSizes) {
+            // ---- grow the store to the target size ----
+            ConnectionStats seedConnectionsBefore = fixture.getTransport().getStats();
+            int first = seeded;
+            StoreSeeder.Result seed = seeder.seed("todos", size - seeded, i -> filterTodo(first + i));
+            fixture.record(seed.toRecord(fixture.interval(seed.getStartMillis(), seed.getEndMillis()),
+                    fixture.getTransport().getStats().since(seedConnectionsBefore)));
+            seeded += seed.getCreated();
+            assertEquals(size, seeded, "Seeding stopped early at " + seeded + " todos");
+
+            // ---- the same question, answered by the server and by the client ----
+            for (Filter filter : filters) {
+                String value = filter.value.apply(size);
+                int expected = filter.expectedMatches.applyAsInt(size);
+                String query = "/todos?" + filter.field + "=" + value;
+
+                filter.serverCurve.put(size, measure(runner, "serverFilter" + filter.capitalizedName(), size, query,
+                        filter.field, value, expected));
+                filter.clientCurve.put(size, measure(runner, "clientFilter" + filter.capitalizedName(), size, "/todos",
+                        filter.field, value, expected));
+            }
+        }
+
+        for (Filter filter : filters) {
+            System.out.println(formatAnalysis(filter));
+        }
+    }
+
+    // ---------- measurement ----------
+
+    /**
+     * Times fetching {@code path} and counting the entities whose field has
+     * the value, which is the full cost of getting the answer to the caller.
+     *
+     * @return mean latency in milliseconds
+     */
+    private double measure(BenchmarkRunner runner, String operation, int storeSize, String path,
+                           String field, String value, int expectedMatches) throws Exception {
+        long[] responseBytes = new long[1];
+        ConnectionStats connectionsBefore = fixture.getTransport().getStats();
+        BenchmarkRunner.Result result = runner.run(storeSize, (n, latencies) -> {
+            long requestStart = System.nanoTime();
+            TransportResponse response = fixture.getTransport().send("GET", path, null);
+            int[] matches = new int[1];
+            StreamingExtractor.forEach(response.getBody(), "todos", fields -> {
+                if (value.equals(fields.get(field))) {
+                    matches[0]++;
+                }
+                return true;
+            });
+            latencies.recordValue(System.nanoTime() - requestStart);
+
+            assertEquals(200, response.getStatusCode());
+            assertEquals(expectedMatches, matches[0], operation + " at " + storeSize);
+            responseBytes[0] = response.getBody().length;
+        });
+        BackgroundSampler.Interval server = fixture.interval(result.getStartMillis(), result.getEndMillis());
+        ConnectionStats connections = fixture.getTransport().getStats().since(connectionsBefore);
+        fixture.record(ResultRecord.forStep(operation, result, server, connections)
+                .set("responseBytes", responseBytes[0]));
+        return result.getLatencies().getMean() / 1e6;
+    }
+
+    private static byte[] filterTodo(int i) {
+        return ("{\"title\":\"filter-" + i + "\",\"doneStatus\":false,\"description\":\"group-"
+                + (i % DESCRIPTION_GROUPS) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ---------- analysis ----------
+
+    /**
+     * Scan-or-index verdict for the server-side filter, from the power-law
+     * exponent of its latency curve, and the store size at which the linear
+     * fits of the two curves cross.
+     */
+    static String formatAnalysis(Filter filter) {
+        StringBuilder out = new StringBuilder("GET /todos?" + filter.field + "= (" + filter.name + ")\n");
+        out.append(String.format("%12s %14s %14s %10s%n", "entities", "serverMs", "clientMs", "ratio"));
+        for (Map.Entry<Integer, Double> point : filter.serverCurve.entrySet()) {
+            double clientMs = filter.clientCurve.get(point.getKey());
+            out.append(String.format("%12d %14.2f %14.2f %10.2f%n",
+                    point.getKey(), point.getValue(), clientMs, point.getValue() / clientMs));
+        }
+        if (filter.serverCurve.size() < 3) {
+            return out.append("  (need at least three sizes to fit)\n").toString();
+        }
+
+        Statistics.LinearFit server = fit(filter.serverCurve, false);
+        Statistics.LinearFit client = fit(filter.clientCurve, false);
+        double exponent = fit(filter.serverCurve, true).getSlope();
+        out.append(String.format("  server: %.4f ms per 1k entities, exponent %.2f -> %s%n",
+                server.getSlope() * 1000, exponent,
+                exponent < INDEX_EXPONENT ? "index-like, flat in N" : "scans the store"));
+        out.append(String.format("  client: %.4f ms per 1k entities%n", client.getSlope() * 1000));
+        out.append("  crossover: ").append(crossover(filter, server, client)).append('\n');
+        return out.toString();
+    }
+
+    private static String crossover(Filter filter, Statistics.LinearFit server, Statistics.LinearFit client) {
+        int largest = Integer.MIN_VALUE;
+        for (int size : filter.serverCurve.keySet()) {
+            largest = Math.max(largest, size);
+            if (filter.serverCurve.get(size) >= filter.clientCurve.get(size)) {
+                return "client-side is already cheaper at " + size + " entities";
+            }
+        }
+        double slopeGap = server.getSlope() - client.getSlope();
+        if (slopeGap <= 0) {
+            return "server-side stays cheaper at every size (its cost grows no faster)";
+        }
+        double n = (client.getIntercept() - server.getIntercept()) / slopeGap;
+        return String.format("server-side cheaper up to ~%.0f entities%s",
+                n, n > largest ? " (extrapolated)" : "");
+    }
+
+    private static Statistics.LinearFit fit(Map<Integer, Double> curve, boolean logLog) {
+        double[] x = new double[curve.size()];
+        double[] y = new double[curve.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> point : curve.entrySet()) {
+            x[i] = logLog ? Math.log(point.getKey()) : point.getKey();
+            y[i] = logLog ? Math.log(point.getValue()) : point.getValue();
+            i++;
+        }
+        return Statistics.linearFit(x, y);
+    }
+
+    /**
+     * One filter of the sweep and the latencies measured for it, keyed on store size.
+     */
+    static final class Filter {
+        private final String name;
+        private final String field;
+        private final IntFunction<String> value;
+        private final IntUnaryOperator expectedMatches;
+        private final Map<Integer, Double> serverCurve = new LinkedHashMap<>();
+        private final Map<Integer, Double> clientCurve = new LinkedHashMap<>();
+
+        /**
+         * @param value           value to filter on, given the number of seeded todos
+         * @param expectedMatches matches at that store size
+         */
+        Filter(String name, String field, IntFunction<String> value,
+               IntUnaryOperator expectedMatches) {
+            this.name = name;
+            this.field = field;
+            this.value = value;
+            this.expectedMatches = expectedMatches;
+        }
+
+        String capitalizedName() {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lines up server GC pauses ({@link GcLog}) with a client-side
+ * {@link RequestTimeline} and reports how many of the slowest requests were
+ * in flight while the server was paused. If most p99 outliers overlap a
+ * pause, the tail is GC; if few do, it comes from somewhere else. The same
+ * share over all requests is the baseline: outliers only point at GC when
+ * they overlap pauses clearly more often than requests in general.
+ */
+public final class GcCorrelator {
+
+    // GC log timestamps have millisecond resolution
+    private static final double SLACK_MS = 1.0;
+
+    private GcCorrelator() {
+    }
+
+    /**
+     * @param percentile e.g. 99; requests at or above this percentile's latency are the outliers
+     */
+    public static Overlap correlate(RequestTimeline timeline, List<GcLog.Pause> pauses, double percentile) {
+        int n = timeline.size();
+        if (n == 0) {
+            return new Overlap(percentile, 0, 0, 0, 0.0, 0);
+        }
+        double[] latencies = new double[n];
+        for (int i = 0; i < n; i++) {
+            latencies[i] = timeline.getLatencyMs(i);
+        }
+        double[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double threshold = sorted[Math.min(n - 1, (int) Math.ceil(percentile / 100.0 * n) - 1)];
+
+        List<GcLog.Pause> byStart = new ArrayList<>(pauses);
+        byStart.sort(Comparator.comparingDouble(GcLog.Pause::getStartMillis));
+        double[] pauseStarts = byStart.stream().mapToDouble(GcLog.Pause::getStartMillis).toArray();
+        double longestPause = byStart.stream().mapToDouble(GcLog.Pause::getDurationMs).max().orElse(0);
+
+        int outliers = 0;
+        int overlapping = 0;
+        int allOverlapping = 0;
+        for (int i = 0; i < n; i++) {
+            double start = timeline.getStartMillis(i) - SLACK_MS;
+            double end = timeline.getStartMillis(i) + latencies[i] + SLACK_MS;
+            boolean overlaps = overlapsPause(byStart, pauseStarts, longestPause, start, end);
+            if (overlaps) {
+                allOverlapping++;
+            }
+            if (latencies[i] >= threshold) {
+                outliers++;
+                if (overlaps) {
+                    overlapping++;
+                }
+            }
+        }
+        return new Overlap(percentile, threshold, outliers, overlapping, (double) allOverlapping / n, pauses.size());
+    }
+
+    private static boolean overlapsPause(List<GcLog.Pause> byStart, double[] pauseStarts, double longestPause,
+                                         double start, double end) {
+        // only pauses starting between (start - longest pause) and end can overlap [start, end]
+        int from = Arrays.binarySearch(pauseStarts, start - longestPause);
+        from = from >= 0 ? from : -from - 1;
+        for (int p = from; p < pauseStarts.length && pauseStarts[p] <= end; p++) {
+            if (byStart.get(p).getEndMillis() >= start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Share of the requests above one latency percentile that overlapped a pause.
+     */
+    public static final class Overlap {
+        private final double percentile;
+        private final double thresholdMs;
+        private final int outliers;
+        private final int overlapping;
+        private final double baselineFraction;
+        private final int pauses;
+
+        Overlap(double percentile, double thresholdMs, int outliers, int overlapping, double baselineFraction,
+                int pauses) {
+            this.percentile = percentile;
+            this.thresholdMs = thresholdMs;
+            this.outliers = outliers;
+            this.overlapping = overlapping;
+            this.baselineFraction = baselineFraction;
+            this.pauses = pauses;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        /** Latency at the percentile; requests at or above it are outliers. */
+        public double getThresholdMs() {
+            return thresholdMs;
+        }
+
+        public int getOutliers() {
+            return outliers;
+        }
+
+        public int getOverlapping() {
+            return overlapping;
+        }
+
+        /** Between 0 and 1. */
+        public double getFraction() {
+            return outliers == 0 ? 0.0 : (double) overlapping / outliers;
+        }
+
+        /** Share of all requests that overlapped a pause, between 0 and 1. */
+        public double getBaselineFraction() {
+            return baselineFraction;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p%s >= %.2f ms: %d of %d outliers (%.0f%%) overlap one of %d GC pauses"
+                            + " (%.1f%% of all requests do)",
+                    percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile),
+                    thresholdMs, overlapping, outliers, 100 * getFraction(), pauses, 100 * baselineFraction);
+        }
+    }
+}
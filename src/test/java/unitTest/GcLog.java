@@ -0,0 +1,118 @@
+package unitTest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stop-the-world pauses read from a unified JVM GC log written with the
+ * {@code timemillis} decorator, e.g.
+ * <pre>
+ * [1729256000123ms][gc] GC(3) Pause Young (Normal) (G1 Evacuation Pause) 24M->5M(256M) 3.456ms
+ * [1729256000456ms][gc,phases] GC(4) Y: Pause Mark Start (Major) 0.012ms
+ * </pre>
+ * Serial, Parallel and G1 log their pauses on the {@code gc} tag; ZGC only
+ * on {@code gc+phases}, prefixed with its generation ({@code Y:} or
+ * {@code y:} young, {@code O:} old). A line is written when its pause ends, so a pause
+ * starts its duration before the logged time. Concurrent phases are skipped.
+ */
+public final class GcLog {
+
+    private static final Pattern PAUSE = Pattern.compile(
+            "^\\[(\\d+)ms\\]\\[[^\\]]*\\] GC\\((\\d+)\\) (?:[A-Za-z]: )?(Pause .*?)(?: \\S+->\\S+)? (\\d+(?:\\.\\d+)?)ms$");
+
+    private GcLog() {
+    }
+
+    /**
+     * @return pauses in log order; empty if the file does not exist
+     */
+    public static List<Pause> parse(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        List<Pause> pauses = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Pause pause = parseLine(line.trim());
+                if (pause != null) {
+                    pauses.add(pause);
+                }
+            }
+        }
+        return pauses;
+    }
+
+    /**
+     * @return the pause on this line, or null if it is not a pause line
+     */
+    static Pause parseLine(String line) {
+        Matcher m = PAUSE.matcher(line);
+        if (!m.matches()) {
+            return null;
+        }
+        double durationMs = Double.parseDouble(m.group(4));
+        long endMillis = Long.parseLong(m.group(1));
+        return new Pause(Integer.parseInt(m.group(2)), m.group(3), endMillis - durationMs, durationMs);
+    }
+
+    /**
+     * Pauses that overlap a wall-clock window.
+     */
+    public static List<Pause> between(List<Pause> pauses, long fromMillis, long toMillis) {
+        List<Pause> inside = new ArrayList<>();
+        for (Pause pause : pauses) {
+            if (pause.getEndMillis() >= fromMillis && pause.getStartMillis() <= toMillis) {
+                inside.add(pause);
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * One stop-the-world pause.
+     */
+    public static final class Pause {
+        private final int gcId;
+        private final String kind;
+        private final double startMillis;
+        private final double durationMs;
+
+        Pause(int gcId, String kind, double startMillis, double durationMs) {
+            this.gcId = gcId;
+            this.kind = kind;
+            this.startMillis = startMillis;
+            this.durationMs = durationMs;
+        }
+
+        public int getGcId() {
+            return gcId;
+        }
+
+        /** e.g. "Pause Young (Normal) (G1 Evacuation Pause)". */
+        public String getKind() {
+            return kind;
+        }
+
+        /** Wall-clock start, in epoch milliseconds. */
+        public double getStartMillis() {
+            return startMillis;
+        }
+
+        public double getEndMillis() {
+            return startMillis + durationMs;
+        }
+
+        public double getDurationMs() {
+            return durationMs;
+        }
+    }
+}
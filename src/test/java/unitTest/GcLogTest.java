@@ -0,0 +1,112 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pause lines of {@link GcLog}, taken from real JDK 21 logs written with
+ * {@code -Xlog:gc,gc+phases:file=...:timemillis,tags} for each collector.
+ */
+public class GcLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldParseSerialPauses() {
+        assertPause("[1792329382005ms][gc] GC(0) Pause Young (Allocation Failure) 18M->17M(61M) 8.881ms",
+                0, "Pause Young (Allocation Failure)", 1792329382005L, 8.881);
+        assertPause("[1792329382026ms][gc       ] GC(4) Pause Full (Allocation Failure) 57M->18M(61M) 4.049ms",
+                4, "Pause Full (Allocation Failure)", 1792329382026L, 4.049);
+        assertNull(GcLog.parseLine("[1792329382022ms][gc,phases] GC(4) Phase 1: Mark live objects 1.006ms"));
+    }
+
+    @Test
+    public void shouldParseParallelPauses() {
+        assertPause("[1792329385042ms][gc] GC(0) Pause Young (Allocation Failure) 16M->16M(61M) 7.379ms",
+                0, "Pause Young (Allocation Failure)", 1792329385042L, 7.379);
+        assertPause("[1792329385060ms][gc       ] GC(2) Pause Full (Ergonomics) 32M->32M(61M) 6.725ms",
+                2, "Pause Full (Ergonomics)", 1792329385060L, 6.725);
+        assertPause("[1792329388030ms][gc       ] GC(1589) Pause Young (System.gc()) 19M->19M(57M) 0.119ms",
+                1589, "Pause Young (System.gc())", 1792329388030L, 0.119);
+        assertNull(GcLog.parseLine("[1792329385056ms][gc,phases] GC(2) Marking Phase 2.309ms"));
+    }
+
+    @Test
+    public void shouldParseG1Pauses() {
+        assertPause("[1792329388072ms][gc       ] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 4M->3M(64M) 1.693ms",
+                0, "Pause Young (Normal) (G1 Evacuation Pause)", 1792329388072L, 1.693);
+        assertPause("[1792329388136ms][gc       ] GC(14) Pause Young (Normal) (G1 Evacuation Pause)"
+                        + " (Evacuation Failure) 57M->58M(64M) 0.688ms",
+                14, "Pause Young (Normal) (G1 Evacuation Pause) (Evacuation Failure)", 1792329388136L, 0.688);
+        assertPause("[1792329388125ms][gc       ] GC(8) Pause Remark 56M->33M(64M) 0.086ms",
+                8, "Pause Remark", 1792329388125L, 0.086);
+        assertPause("[1792329388129ms][gc       ] GC(8) Pause Cleanup 33M->33M(64M) 0.026ms",
+                8, "Pause Cleanup", 1792329388129L, 0.026);
+        assertPause("[1792329388143ms][gc       ] GC(18) Pause Full (G1 Compaction Pause) 63M->7M(27M) 4.254ms",
+                18, "Pause Full (G1 Compaction Pause)", 1792329388143L, 4.254);
+        // concurrent work and phase breakdowns are not pauses
+        assertNull(GcLog.parseLine("[1792329388131ms][gc       ] GC(8) Concurrent Mark Cycle 17.713ms"));
+        assertNull(GcLog.parseLine("[1792329388072ms][gc,phases] GC(0)   Pre Evacuate Collection Set: 0.0ms"));
+    }
+
+    @Test
+    public void shouldParseZgcPausesOfBothGenerations() {
+        assertPause("[1792329391141ms][gc,phases] GC(0) Y: Pause Mark Start (Major) 0.013ms",
+                0, "Pause Mark Start (Major)", 1792329391141L, 0.013);
+        assertPause("[1792329391154ms][gc,phases] GC(0) O: Pause Mark End 0.007ms",
+                0, "Pause Mark End", 1792329391154L, 0.007);
+        // minor collections use a lower-case prefix
+        assertPause("[1792329391191ms][gc,phases] GC(1) y: Pause Mark Start 0.003ms",
+                1, "Pause Mark Start", 1792329391191L, 0.003);
+        assertPause("[1792329391196ms][gc,phases] GC(1) y: Pause Relocate Start 0.007ms",
+                1, "Pause Relocate Start", 1792329391196L, 0.007);
+        assertNull(GcLog.parseLine("[1792329391143ms][gc,phases] GC(0) Y: Concurrent Mark 2.206ms"));
+        assertNull(GcLog.parseLine("[1792329391141ms][gc,phases] GC(0) Y: Young Generation"));
+        assertNull(GcLog.parseLine("[1792329391092ms][gc] Using The Z Garbage Collector"));
+    }
+
+    @Test
+    public void shouldReadPausesFromFileAndSelectWindow() throws IOException {
+        Path file = directory.resolve("gc.log");
+        Files.write(file, Arrays.asList(
+                "[1792329388060ms][gc] Using G1",
+                "[1792329388072ms][gc       ] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 4M->3M(64M) 1.693ms",
+                "[1792329388113ms][gc       ] GC(8) Concurrent Mark Cycle",
+                "[1792329388125ms][gc       ] GC(8) Pause Remark 56M->33M(64M) 0.086ms",
+                "[1792329388143ms][gc       ] GC(18) Pause Full (G1 Compaction Pause) 63M->7M(27M) 4.254ms"),
+                StandardCharsets.UTF_8);
+
+        List<GcLog.Pause> pauses = GcLog.parse(file);
+
+        assertEquals(3, pauses.size());
+        assertEquals(Arrays.asList(0, 8, 18), pauses.stream().map(GcLog.Pause::getGcId).toList());
+        // the full GC ends at 143 ms and started 4.254 ms earlier, so it overlaps a window ending at 140 ms
+        List<GcLog.Pause> inside = GcLog.between(pauses, 1792329388100L, 1792329388140L);
+        assertEquals(Arrays.asList(8, 18), inside.stream().map(GcLog.Pause::getGcId).toList());
+    }
+
+    @Test
+    public void shouldReturnNoPausesForMissingFile() throws IOException {
+        assertTrue(GcLog.parse(directory.resolve("missing.log")).isEmpty());
+    }
+
+    private static void assertPause(String line, int gcId, String kind, long endMillis, double durationMs) {
+        GcLog.Pause pause = GcLog.parseLine(line);
+        assertNotNull(pause, line);
+        assertEquals(gcId, pause.getGcId());
+        assertEquals(kind, pause.getKind());
+        assertEquals(durationMs, pause.getDurationMs(), 1e-9);
+        assertEquals(endMillis, pause.getEndMillis(), 1e-6);
+        assertEquals(endMillis - durationMs, pause.getStartMillis(), 1e-6);
+    }
+}
@@ -0,0 +1,83 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+/**
+ * Checks whether the server's tail latency is GC. The server runs on a small
+ * heap with its unified GC log on ({@link ServerManager#getGcLogFile()});
+ * a rate-driven mix of creates and reads fills that heap while every
+ * request's send time and latency go into a {@link RequestTimeline}. The GC
+ * log is then parsed ({@link GcLog}) and lined up with the timeline
+ * ({@link GcCorrelator}) to report which share of the p99 and p99.9 outliers
+ * were in flight during a pause.
+ * <p>
+ * Tagged {@code benchmark}. Server flags, request count and rate come from
+ * {@code perf.gc.*}.
+ */
+@Tag("benchmark")
+public class GcPauseCorrelationBenchmark {
+
+    private static final int WORKERS = 16;
+
+    private static BenchmarkFixture fixture;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("gcCorrelation", ServerManager.onFreePort(
+                BenchmarkFixture.serverFlags("perf.gc.serverJvmFlags", "-Xmx128m")).withGcLog());
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldAttributeTailLatencyToGcPauses() throws Exception {
+        int requests = Integer.getInteger("perf.gc.requests", 20000);
+        double targetRate = Double.parseDouble(System.getProperty("perf.gc.rate", "500"));
+        assertNotNull(fixture.getServer().getGcLogFile(), "perf.gc.serverJvmFlags must not set up its own -Xlog:gc");
+        PayloadCorpus corpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.TODO, 1200, PayloadCorpus.DEFAULT_SEED);
+
+        // every fourth request creates a todo, so the store and the heap keep growing;
+        // the others read one todo back
+        HttpTransport transport = fixture.getTransport();
+        String readPath = "/todos/" + transport.send("POST", "/todos", corpus.get(0)).getJsonInt("id");
+        RequestTimeline timeline = new RequestTimeline(requests);
+        LoadGenerator generator = new LoadGenerator(WORKERS, targetRate);
+
+        ConnectionStats connectionsBefore = transport.getStats();
+        long startTime = System.currentTimeMillis();
+        LoadGenerator.LoadResult result = generator.run(requests, (workerId, sequence) -> {
+            long sendNanos = System.nanoTime();
+            int status = sequence % 4 == 0
+                    ? transport.send("POST", "/todos", corpus.get((int) (sequence % corpus.size()))).getStatusCode()
+                    : transport.send("GET", readPath, null).getStatusCode();
+            timeline.record(sendNanos, System.nanoTime());
+            return status;
+        });
+        long endTime = System.currentTimeMillis();
+        assertEquals(0, result.getErrors());
+
+        List<GcLog.Pause> pauses = GcLog.between(
+                GcLog.parse(fixture.getServer().getGcLogFile().toPath()), startTime, endTime);
+        GcCorrelator.Overlap p99 = GcCorrelator.correlate(timeline, pauses, 99);
+        GcCorrelator.Overlap p999 = GcCorrelator.correlate(timeline, pauses, 99.9);
+
+        BackgroundSampler.Interval server = fixture.interval(startTime, endTime);
+        fixture.record(ResultRecord.forLoad("gcCorrelatedLoad", result, server,
+                        transport.getStats().since(connectionsBefore))
+                .set("p99GcOverlap", p99.getFraction())
+                .set("p999GcOverlap", p999.getFraction()));
+
+        double pausedMs = pauses.stream().mapToDouble(GcLog.Pause::getDurationMs).sum();
+        System.out.printf("%d requests at %.0f/s, %d GC pauses (%.1f ms) during the run, log %s%n  %s%n  %s%n",
+                timeline.size(), targetRate, pauses.size(), pausedMs, fixture.getServer().getGcLogFile(), p99, p999);
+    }
+}
@@ -0,0 +1,167 @@
+package unitTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds relationship graphs on the server for the graph benchmarks: a
+ * project whose tasks are {@code fanOut} todos (created through
+ * {@code POST /projects/{id}/tasks}, which links both ways), each todo
+ * linked to some of a set of categories shared across all todos. Building is
+ * never timed.
+ * <p>
+ * The server's relationship lists are not thread-safe: concurrent writes to
+ * the same entity's links fail with a {@code ConcurrentModificationException}
+ * (400). Tasks of one project are therefore added one at a time, and only
+ * work on distinct todos runs on concurrent virtual threads.
+ */
+public class GraphWorkload {
+
+    private final HttpTransport transport;
+    private final int workers;
+
+    public GraphWorkload(HttpTransport transport, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        this.transport = transport;
+        this.workers = workers;
+    }
+
+    /**
+     * Creates {@code count} categories to be shared by the graphs.
+     *
+     * @return ids of the new categories
+     */
+    public String[] createCategories(int count) throws Exception {
+        String[] ids = new String[count];
+        inParallel(count, i -> ids[i] = create("/categories", "{\"title\":\"graph category " + i + "\"}"));
+        return ids;
+    }
+
+    /**
+     * Creates a project with {@code fanOut} tasks and links every task to
+     * {@code categoriesPerTodo} of the shared categories, round-robin.
+     *
+     * @param categories shared category ids; may be empty
+     */
+    public Graph build(int fanOut, String[] categories, int categoriesPerTodo) throws Exception {
+        String projectId = create("/projects", "{\"title\":\"graph project " + fanOut + "\"}");
+        String[] todoIds = new String[fanOut];
+        for (int i = 0; i < fanOut; i++) {
+            todoIds[i] = create("/projects/" + projectId + "/tasks", "{\"title\":\"graph task " + i + "\"}");
+        }
+
+        // one todo's links from one thread; different todos in parallel
+        int links = categories.length == 0 ? 0 : Math.min(categoriesPerTodo, categories.length);
+        inParallel(links == 0 ? 0 : fanOut, todo -> {
+            for (int k = 0; k < links; k++) {
+                link("/todos/" + todoIds[todo] + "/categories", categories[(todo + k) % categories.length]);
+            }
+        });
+        return new Graph(projectId, todoIds);
+    }
+
+    /**
+     * Creates {@code count} todos that belong to no project.
+     */
+    public String[] createTodos(int count) throws Exception {
+        String[] ids = new String[count];
+        inParallel(count, i -> ids[i] = create("/todos", "{\"title\":\"graph todo " + i + "\"}"));
+        return ids;
+    }
+
+    /**
+     * Deletes entities, ignoring those that are already gone. Deletes that
+     * collide on a shared relationship list are retried one at a time.
+     *
+     * @param collection e.g. "todos"
+     */
+    public void deleteAll(String collection, String[] ids) throws Exception {
+        boolean[] retry = new boolean[ids.length];
+        inParallel(ids.length, i -> retry[i] = transport.send("DELETE", "/" + collection + "/" + ids[i], null)
+                .getStatusCode() == 400);
+        for (int i = 0; i < ids.length; i++) {
+            if (retry[i]) {
+                transport.send("DELETE", "/" + collection + "/" + ids[i], null);
+            }
+        }
+    }
+
+    // ---------- requests ----------
+
+    private String create(String path, String body) throws Exception {
+        TransportResponse response = transport.send("POST", path, body.getBytes(StandardCharsets.UTF_8));
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("POST " + path + " returned " + response.getStatusCode());
+        }
+        return String.valueOf(response.getJsonInt("id"));
+    }
+
+    private void link(String path, String id) throws Exception {
+        TransportResponse response = transport.send("POST", path,
+                ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("POST " + path + " returned " + response.getStatusCode());
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedRequest {
+        void send(int index) throws Exception;
+    }
+
+    private void inParallel(int count, IndexedRequest request) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < Math.min(workers, count); w++) {
+                futures.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < count) {
+                        request.send(i);
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
+
+    /**
+     * A project and the ids of its tasks.
+     */
+    public static final class Graph {
+        private final String projectId;
+        private final String[] todoIds;
+
+        Graph(String projectId, String[] todoIds) {
+            this.projectId = projectId;
+            this.todoIds = todoIds;
+        }
+
+        public String getProjectId() {
+            return projectId;
+        }
+
+        public String[] getTodoIds() {
+            return todoIds;
+        }
+
+        public int getFanOut() {
+            return todoIds.length;
+        }
+    }
+}
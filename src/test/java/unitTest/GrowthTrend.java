@@ -0,0 +1,62 @@
+package unitTest;
+
+/**
+ * Linear trend of a quantity that should stay flat, such as the server's
+ * retained heap over repeated create/delete cycles. The trend counts as
+ * unbounded growth only if both hold:
+ * <ul>
+ *   <li>the slope is significantly positive: its 95% confidence interval
+ *       lies above zero;</li>
+ *   <li>the fitted growth over the observed span exceeds a tolerance, so a
+ *       tiny but steady drift (e.g. a cache filling up) is not a leak.</li>
+ * </ul>
+ */
+public class GrowthTrend {
+
+    private final String name;
+    private final Statistics.LinearFit fit;
+    private final double span;
+    private final double tolerance;
+
+    private GrowthTrend(String name, Statistics.LinearFit fit, double span, double tolerance) {
+        this.name = name;
+        this.fit = fit;
+        this.span = span;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param x         e.g. cycles completed at each snapshot, ascending
+     * @param y         the quantity at each snapshot
+     * @param tolerance largest growth over the whole span that is not a leak, in units of y
+     */
+    public static GrowthTrend fit(String name, double[] x, double[] y, double tolerance) {
+        return new GrowthTrend(name, Statistics.linearFit(x, y), x[x.length - 1] - x[0], tolerance);
+    }
+
+    public Statistics.LinearFit getFit() {
+        return fit;
+    }
+
+    /** Fitted growth between the first and the last snapshot. */
+    public double getGrowth() {
+        return fit.getSlope() * span;
+    }
+
+    /** Lower end of the slope's 95% confidence interval. */
+    public double getSlopeLowerBound() {
+        return fit.getSlope() - Statistics.tCritical95(fit.getPoints() - 2) * fit.getSlopeStdErr();
+    }
+
+    public boolean isUnbounded() {
+        return getSlopeLowerBound() > 0 && getGrowth() > tolerance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: slope %.3g/unit (95%% lower bound %.3g, R^2 %.2f), growth %.4g over the run"
+                        + " (tolerance %.4g) -> %s",
+                name, fit.getSlope(), getSlopeLowerBound(), fit.getRSquared(), getGrowth(), tolerance,
+                isUnbounded() ? "UNBOUNDED" : "bounded");
+    }
+}
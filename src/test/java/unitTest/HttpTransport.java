@@ -0,0 +1,74 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pluggable HTTP client used by the perf tests, so connection handling can be
+ * chosen per run and connection-setup cost can be told apart from server cost.
+ * Pick an implementation with {@code -Dperf.transport=apache|jdk|nio|restassured}.
+ * Implementations are thread-safe.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    /**
+     * Sends one request. JSON bodies are sent as {@code application/json}.
+     *
+     * @param method HTTP method, e.g. "POST"
+     * @param path   path relative to the base URI, e.g. "/todos/3"
+     * @param body   request body, or null for none
+     * @return status and body of the response
+     */
+    TransportResponse send(String method, String path, byte[] body) throws Exception;
+
+    /**
+     * Sends several requests, pipelined on a single connection when the
+     * transport supports it and one after the other otherwise.
+     */
+    default List<TransportResponse> sendAll(List<TransportRequest> requests) throws Exception {
+        List<TransportResponse> responses = new ArrayList<>(requests.size());
+        for (TransportRequest r : requests) {
+            responses.add(send(r.getMethod(), r.getPath(), r.getBody()));
+        }
+        return responses;
+    }
+
+    /**
+     * Connection usage since this transport was created.
+     */
+    ConnectionStats getStats();
+
+    String getName();
+
+    @Override
+    void close();
+
+    /**
+     * Creates a transport by name.
+     *
+     * @param name    apache, jdk, nio or restassured
+     * @param baseUri e.g. http://localhost:4567
+     */
+    static HttpTransport create(String name, String baseUri) {
+        switch (name.toLowerCase()) {
+            case "apache":
+                return new ApacheTransport(baseUri, 64);
+            case "jdk":
+                return new JdkTransport(baseUri);
+            case "nio":
+                return new NioTransport(baseUri);
+            case "restassured":
+                return new RestAssuredTransport(baseUri);
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + name);
+        }
+    }
+
+    /**
+     * Creates the transport selected by the {@code perf.transport} system
+     * property; pooled keep-alive Apache by default.
+     */
+    static HttpTransport fromSystemProperty(String baseUri) {
+        return create(System.getProperty("perf.transport", "apache"), baseUri);
+    }
+}
@@ -0,0 +1,74 @@
+package unitTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Runs {@code jcmd} diagnostic commands against another JVM, e.g. the server
+ * process, using the {@code jcmd} of the JDK running the tests.
+ */
+public final class Jcmd {
+
+    private static final long TIMEOUT_SECONDS = 60;
+    private static final Pattern FAILURE = Pattern.compile("\\s*[\\w.$]+(Exception|Error)\\b");
+
+    private Jcmd() {
+    }
+
+    /**
+     * @param arguments the diagnostic command and its options, e.g. {@code "GC.class_histogram"}
+     * @return the command's output, without jcmd's {@code <pid>:} header line
+     * @throws IOException if jcmd fails, times out or reports an error
+     */
+    public static String run(Process target, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(executable());
+        command.add(String.valueOf(target.pid()));
+        command.addAll(Arrays.asList(arguments));
+
+        // output goes to a file rather than a pipe: reading a pipe blocks until jcmd exits,
+        // so a hung attach would never reach the timeout below
+        Path outputFile = Files.createTempFile("jcmd-", ".out");
+        String output;
+        Process process;
+        try {
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(outputFile.toFile())
+                    .start();
+            try {
+                if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    throw new IOException("jcmd " + arguments[0] + " timed out after " + TIMEOUT_SECONDS + " s");
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for jcmd", e);
+            }
+            output = new String(Files.readAllBytes(outputFile), StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(outputFile);
+        }
+        // jcmd exits 0 even when the diagnostic command itself fails; it then prints
+        // the exception right after its "<pid>:" header line
+        String body = output.substring(output.indexOf('\n') + 1);
+        if (process.exitValue() != 0 || FAILURE.matcher(body).lookingAt() || output.contains("Could not")) {
+            throw new IOException("jcmd " + String.join(" ", arguments) + " failed: " + output.trim());
+        }
+        return body;
+    }
+
+    private static String executable() {
+        String javaHome = System.getProperty("java.home");
+        return javaHome == null ? "jcmd" : javaHome + File.separator + "bin" + File.separator + "jcmd";
+    }
+}
@@ -0,0 +1,59 @@
+package unitTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code java.net.http.HttpClient} forced to HTTP/1.1. It keeps connections
+ * alive in its own pool but does not pipeline, and it does not expose how
+ * many connections it opened, so that count is reported as -1.
+ */
+public class JdkTransport implements HttpTransport {
+
+    private final String baseUri;
+    private final HttpClient client;
+    private final AtomicLong requests = new AtomicLong();
+
+    public JdkTransport(String baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public TransportResponse send(String method, String path, byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+
+        requests.incrementAndGet();
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        return new TransportResponse(response.statusCode(), response.body());
+    }
+
+    @Override
+    public ConnectionStats getStats() {
+        return new ConnectionStats(requests.get(), -1);
+    }
+
+    @Override
+    public String getName() {
+        return "jdk";
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package unitTest;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-N summary of a Java Flight Recorder recording of the server, read with
+ * the {@code jdk.jfr.consumer} API:
+ * <ul>
+ *   <li>hot methods: execution samples by top frame, and by the first frame
+ *       outside the JDK, which is usually the server code that asked for the
+ *       work;</li>
+ *   <li>allocation sites: sampled allocation bytes by class and top frame;</li>
+ *   <li>lock contention: time blocked entering monitors, by monitor class and frame;</li>
+ *   <li>GC: collections and total pause time.</li>
+ * </ul>
+ */
+public class JfrSummary {
+
+    private final Counter selfSamples = new Counter();
+    private final Counter applicationSamples = new Counter();
+    private final Counter allocationBytes = new Counter();
+    private final Counter monitorNanos = new Counter();
+    private int executionSamples;
+    private int gcCount;
+    private long gcPauseNanos;
+
+    /**
+     * Reads a recording event by event, so large recordings are never held in memory.
+     */
+    public static JfrSummary read(Path recording) throws IOException {
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample": {
+                executionSamples++;
+                List<RecordedFrame> frames = frames(event);
+                if (!frames.isEmpty()) {
+                    selfSamples.add(name(frames.get(0)), 1);
+                    applicationSamples.add(firstApplicationFrame(frames), 1);
+                }
+                break;
+            }
+            case "jdk.ObjectAllocationSample": {
+                RecordedClass type = event.getClass("objectClass");
+                List<RecordedFrame> frames = frames(event);
+                String site = (type == null ? "?" : type.getName())
+                        + " at " + (frames.isEmpty() ? "?" : firstApplicationFrame(frames));
+                allocationBytes.add(site, event.getLong("weight"));
+                break;
+            }
+            case "jdk.JavaMonitorEnter": {
+                RecordedClass monitor = event.getClass("monitorClass");
+                List<RecordedFrame> frames = frames(event);
+                String site = (monitor == null ? "?" : monitor.getName())
+                        + " at " + (frames.isEmpty() ? "?" : name(frames.get(0)));
+                monitorNanos.add(site, event.getDuration().toNanos());
+                break;
+            }
+            case "jdk.GarbageCollection":
+                gcCount++;
+                gcPauseNanos += event.getDuration("sumOfPauses").toNanos();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Plain-text report with the {@code top} entries of each section.
+     */
+    public String format(int top) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("GC: %d collections, %.1f ms paused%n", gcCount, gcPauseNanos / 1e6));
+
+        out.append(String.format("%nHot methods, self (%d execution samples)%n", executionSamples));
+        appendShares(out, selfSamples, top, executionSamples, "samples");
+        out.append(String.format("%nHot methods, first frame outside the JDK%n"));
+        appendShares(out, applicationSamples, top, executionSamples, "samples");
+
+        out.append(String.format("%nAllocation sites (sampled bytes)%n"));
+        appendShares(out, allocationBytes, top, allocationBytes.total(), "MB");
+
+        out.append(String.format("%nLock contention (time blocked entering monitors)%n"));
+        appendShares(out, monitorNanos, top, monitorNanos.total(), "ms");
+        return out.toString();
+    }
+
+    public int getExecutionSamples() {
+        return executionSamples;
+    }
+
+    public int getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcPauseNanos() {
+        return gcPauseNanos;
+    }
+
+    // ---------- helpers ----------
+
+    private static void appendShares(StringBuilder out, Counter counter, int top, long total, String unit) {
+        List<Map.Entry<String, Long>> entries = counter.top(top);
+        if (entries.isEmpty()) {
+            out.append("  (none recorded)\n");
+            return;
+        }
+        for (Map.Entry<String, Long> entry : entries) {
+            double value = entry.getValue();
+            if (unit.equals("MB")) {
+                value /= 1048576.0;
+            } else if (unit.equals("ms")) {
+                value /= 1e6;
+            }
+            out.append(String.format(unit.equals("samples") ? "  %5.1f%% %12.0f %-7s %s%n" : "  %5.1f%% %12.1f %-7s %s%n",
+                    100.0 * entry.getValue() / Math.max(1, total), value, unit, entry.getKey()));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        return stackTrace == null ? new ArrayList<>() : stackTrace.getFrames();
+    }
+
+    private static String firstApplicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")
+                    && !type.startsWith("com.sun.")) {
+                return name(frame);
+            }
+        }
+        return name(frames.get(0));
+    }
+
+    private static String name(RecordedFrame frame) {
+        RecordedMethod method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    /**
+     * Sums of a quantity per key.
+     */
+    private static final class Counter {
+        private final Map<String, Long> values = new HashMap<>();
+
+        void add(String key, long amount) {
+            values.merge(key, amount, Long::sum);
+        }
+
+        long total() {
+            long total = 0;
+            for (long value : values.values()) {
+                total += value;
+            }
+            return total;
+        }
+
+        List<Map.Entry<String, Long>> top(int n) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(values.entrySet());
+            entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            return entries.subList(0, Math.min(n, entries.size()));
+        }
+    }
+}
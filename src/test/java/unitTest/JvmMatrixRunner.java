@@ -0,0 +1,249 @@
+package unitTest;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Repeats the Todo and Project perf scenarios against the server under every
+ * combination of garbage collector, maximum heap and JIT mode, then ranks
+ * the configurations by throughput.
+ * <p>
+ * Each configuration runs the scenario test methods through the JUnit
+ * Platform launcher, in this JVM, with {@code perf.serverJvmFlags} set to
+ * the configuration's flags, so the rows land in the usual results files
+ * with the flags in {@code serverJvmFlags}. The ranking then reads this
+ * run's rows back through {@link ResultHistory}:
+ * <ul>
+ *   <li>throughput and p99: geometric means over the (operation, size)
+ *       points every completed configuration measured, so each point weighs
+ *       the same whatever its scale;</li>
+ *   <li>RSS: the server's peak over the whole configuration;</li>
+ *   <li>startup: the server's time to first answer.</li>
+ * </ul>
+ * Configurations whose scenarios failed (e.g. out of heap) are listed last.
+ * <p>
+ * Usage: {@code ./gradlew jvmMatrix [-Pperf.matrix.gcs=G1,Z] [-Pperf.matrix.heaps=256m,1g]
+ * [-Pperf.matrix.jit=tiered,c2]}. The full default matrix is 48 configurations.
+ */
+public class JvmMatrixRunner {
+
+    /** Test method and the operation it records, for every scenario in the matrix. */
+    static final Map<String, String> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        SCENARIOS.put("unitTest.TodoUnitTest#shouldCreateMultipleTodosAndCleanup", "createMultipleTodos");
+        SCENARIOS.put("unitTest.TodoUnitTest#shouldUpdateTodoViaPost", "updateTodoPost");
+        SCENARIOS.put("unitTest.TodoUnitTest#shouldReflectActualPutBehavior_resetsFields", "updateTodoPut");
+        SCENARIOS.put("unitTest.TodoUnitTest#shouldDeleteBatchOfNewTodos_withPerformance", "deleteTodos");
+        SCENARIOS.put("unitTest.ProjectUnitTest#givenMultipleProjects_whenPostRepeatedly", "createMultipleProjects");
+        SCENARIOS.put("unitTest.ProjectUnitTest#givenExistingProject_whenPostToId_then200AndUpdated_withPerformance",
+                "amendProjectPost");
+        SCENARIOS.put("unitTest.ProjectUnitTest#givenExistingProject_whenPutToId_then200AndUpdated_withPerformance",
+                "updateProjectPut");
+        SCENARIOS.put("unitTest.ProjectUnitTest#givenMultipleProjects_whenDeleteBatch_withPerformance",
+                "deleteMultipleProjects");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get(System.getProperty("perf.results.dir", "build/perf-results"));
+        List<String> configurations = configurations(
+                list("perf.matrix.gcs", "Serial,Parallel,G1,Z"),
+                list("perf.matrix.heaps", "64m,128m,256m,512m,1g,2g"),
+                list("perf.matrix.jit", "tiered,c2"));
+
+        Map<String, Long> failures = new LinkedHashMap<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            String flags = configurations.get(i);
+            System.out.printf("[%d/%d] %s%n", i + 1, configurations.size(), flags);
+            failures.put(flags, runScenarios(flags));
+        }
+
+        List<Map<String, String>> rows = ResultHistory.load(directory).getRows(RunInfo.current().getRunId());
+        String table = formatRanking(rank(rows, failures));
+        System.out.println(table);
+        Path report = directory.resolve("jvm-matrix-" + RunInfo.current().getRunId() + ".txt");
+        Files.write(report, table.getBytes(StandardCharsets.UTF_8));
+        System.out.println("Written to " + report);
+    }
+
+    /**
+     * @param jit "tiered" (the default) or "c2" (C2 only, no tiered compilation)
+     */
+    static List<String> configurations(List<String> gcs, List<String> heaps, List<String> jit) {
+        List<String> configurations = new ArrayList<>();
+        for (String gc : gcs) {
+            for (String heap : heaps) {
+                for (String mode : jit) {
+                    if (!mode.equals("tiered") && !mode.equals("c2")) {
+                        throw new IllegalArgumentException("Unknown JIT mode: " + mode + " (tiered or c2)");
+                    }
+                    configurations.add("-XX:+Use" + gc + "GC -Xmx" + heap
+                            + (mode.equals("c2") ? " -XX:-TieredCompilation" : ""));
+                }
+            }
+        }
+        return configurations;
+    }
+
+    /**
+     * @return number of failed scenario tests
+     */
+    private static long runScenarios(String flags) {
+        System.setProperty("perf.serverJvmFlags", flags);
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(SCENARIOS.keySet().stream()
+                        .map(method -> selectMethod(method))
+                        .collect(Collectors.toList()))
+                // one configuration at a time, one server at a time
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+                .build();
+        Launcher launcher = LauncherFactory.create();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(request, listener);
+        listener.getSummary().getFailures().forEach(failure ->
+                System.out.println("  failed: " + failure.getTestIdentifier().getDisplayName()
+                        + ": " + failure.getException()));
+        return listener.getSummary().getTotalFailureCount()
+                + listener.getSummary().getContainersFailedCount();
+    }
+
+    // ---------- ranking ----------
+
+    static List<Ranked> rank(List<Map<String, String>> rows, Map<String, Long> failures) {
+        Set<String> operations = new LinkedHashSet<>(SCENARIOS.values());
+        Map<String, Map<String, Map<String, String>>> pointsByConfiguration = new HashMap<>();
+        Map<String, Long> peakRss = new HashMap<>();
+        Map<String, Double> startupMs = new HashMap<>();
+        for (Map<String, String> row : rows) {
+            String flags = row.getOrDefault("serverJvmFlags", "");
+            if (!failures.containsKey(flags)) {
+                continue;
+            }
+            String operation = row.getOrDefault("operation", "");
+            if (operation.equals("serverStartup")) {
+                startupMs.merge(flags, parse(row.get("durationMs")), Math::max);
+            } else if (operations.contains(operation)) {
+                pointsByConfiguration.computeIfAbsent(flags, k -> new HashMap<>())
+                        .put(operation + "@" + row.get("numObjects"), row);
+                peakRss.merge(flags, (long) parse(row.get("serverPeakRssBytes")), Math::max);
+            }
+        }
+
+        // points measured by every configuration that completed
+        Set<String> common = null;
+        for (Map.Entry<String, Long> entry : failures.entrySet()) {
+            Map<String, Map<String, String>> points = pointsByConfiguration.get(entry.getKey());
+            if (entry.getValue() == 0 && points != null) {
+                if (common == null) {
+                    common = new LinkedHashSet<>(points.keySet());
+                } else {
+                    common.retainAll(points.keySet());
+                }
+            }
+        }
+
+        List<Ranked> ranked = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : failures.entrySet()) {
+            String flags = entry.getKey();
+            Map<String, Map<String, String>> points = pointsByConfiguration.getOrDefault(flags, new HashMap<>());
+            boolean complete = entry.getValue() == 0 && common != null && !common.isEmpty();
+            double throughput = Double.NaN;
+            double p99 = Double.NaN;
+            if (complete) {
+                double logThroughput = 0;
+                double logP99 = 0;
+                for (String point : common) {
+                    logThroughput += Math.log(parse(points.get(point).get("throughput")));
+                    logP99 += Math.log(Math.max(1e-3, parse(points.get(point).get("p99Ms"))));
+                }
+                throughput = Math.exp(logThroughput / common.size());
+                p99 = Math.exp(logP99 / common.size());
+            }
+            ranked.add(new Ranked(flags, entry.getValue(), complete ? common.size() : points.size(), throughput, p99,
+                    peakRss.getOrDefault(flags, 0L), startupMs.getOrDefault(flags, Double.NaN)));
+        }
+        ranked.sort(Comparator.comparing((Ranked r) -> !r.isComplete())
+                .thenComparing(Comparator.comparingDouble((Ranked r) -> r.throughput).reversed()));
+        return ranked;
+    }
+
+    static String formatRanking(List<Ranked> ranked) {
+        StringBuilder table = new StringBuilder("Server JVM configurations, best throughput first\n");
+        table.append(String.format("%4s  %-48s %12s %10s %12s %10s %7s  %s%n",
+                "rank", "serverJvmFlags", "throughput", "p99Ms", "peakRssMB", "startupMs", "points", "status"));
+        int rank = 1;
+        for (Ranked r : ranked) {
+            table.append(String.format("%4s  %-48s %12.1f %10.2f %12.1f %10.0f %7d  %s%n",
+                    r.isComplete() ? String.valueOf(rank++) : "-", r.flags, r.throughput, r.p99Ms,
+                    r.peakRssBytes / 1048576.0, r.startupMs, r.points,
+                    r.isComplete() ? "ok" : r.failures + " failed"));
+        }
+        table.append("throughput and p99Ms are geometric means over the operation/size points all"
+                + " completed configurations share\n");
+        return table.toString();
+    }
+
+    // ---------- helpers ----------
+
+    private static List<String> list(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static double parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * One configuration's place in the ranking.
+     */
+    static final class Ranked {
+        private final String flags;
+        private final long failures;
+        private final int points;
+        private final double throughput;
+        private final double p99Ms;
+        private final long peakRssBytes;
+        private final double startupMs;
+
+        Ranked(String flags, long failures, int points, double throughput, double p99Ms, long peakRssBytes,
+               double startupMs) {
+            this.flags = flags;
+            this.failures = failures;
+            this.points = points;
+            this.throughput = throughput;
+            this.p99Ms = p99Ms;
+            this.peakRssBytes = peakRssBytes;
+            this.startupMs = startupMs;
+        }
+
+        boolean isComplete() {
+            return !Double.isNaN(throughput);
+        }
+    }
+}
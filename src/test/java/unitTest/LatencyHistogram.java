@@ -0,0 +1,163 @@
+package unitTest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-memory latency histogram using the log-linear bucket layout of
+ * HdrHistogram. Values are recorded in nanoseconds with three significant
+ * digits of precision. All storage is allocated up front, so
+ * {@link #recordValue(long)} never allocates and can sit inside a timed loop.
+ * Not thread-safe: give each thread its own histogram and {@link #add} them.
+ */
+public class LatencyHistogram {
+
+    // 2048 sub-buckets per bucket gives better than 0.1% value resolution
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 10;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_COUNT_MAGNITUDE;
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF_COUNT << 1;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int LEADING_ZERO_COUNT_BASE = 64 - SUB_BUCKET_HALF_COUNT_MAGNITUDE - 1;
+
+    private static final long DEFAULT_HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final long highestTrackableValue;
+    private final long[] counts;
+
+    private long totalCount;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+    private double sum;
+
+    /**
+     * Creates a histogram that tracks values up to one hour.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_NANOS);
+    }
+
+    /**
+     * @param highestTrackableNanos largest value the histogram can resolve;
+     *                              larger values are clamped to it
+     */
+    public LatencyHistogram(long highestTrackableNanos) {
+        if (highestTrackableNanos < SUB_BUCKET_COUNT) {
+            throw new IllegalArgumentException("highestTrackableNanos must be at least " + SUB_BUCKET_COUNT);
+        }
+        this.highestTrackableValue = highestTrackableNanos;
+        this.counts = new long[countsIndexFor(highestTrackableNanos) + 1];
+    }
+
+    // ---------------- RECORDING ----------------
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos latency in nanoseconds; negative values are treated as 0
+     */
+    public void recordValue(long nanos) {
+        long value = Math.max(0, Math.min(nanos, highestTrackableValue));
+        counts[countsIndexFor(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < minValue) {
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    /**
+     * Adds all samples of another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            throw new IllegalArgumentException("Cannot add a histogram with a larger trackable range");
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    // ---------------- QUERIES ----------------
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMinValue() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : sum / totalCount;
+    }
+
+    /**
+     * @param percentile value between 0 and 100
+     * @return highest value (in nanoseconds) equivalent to the value at that percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double requested = Math.min(Math.max(percentile, 0.0), 100.0);
+        long countAtPercentile = Math.max(1, (long) Math.ceil(requested / 100.0 * totalCount));
+
+        long running = 0;
+        for (int i = 0; i < counts.length; i++) {
+            running += counts[i];
+            if (running >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(valueFromIndex(i)), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Same as {@link #getValueAtPercentile(double)}, in milliseconds.
+     */
+    public double getValueAtPercentileMs(double percentile) {
+        return getValueAtPercentile(percentile) / 1e6;
+    }
+
+    // ---------------- BUCKET MATH ----------------
+
+    private static int countsIndexFor(long value) {
+        int bucketIndex = LEADING_ZERO_COUNT_BASE - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << SUB_BUCKET_HALF_COUNT_MAGNITUDE) + (subBucketIndex - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long valueFromIndex(int index) {
+        int bucketIndex = (index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1;
+        int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        if (bucketIndex < 0) {
+            subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex) << bucketIndex;
+    }
+
+    private static long highestEquivalentValue(long value) {
+        int bucketIndex = LEADING_ZERO_COUNT_BASE - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        return value + (1L << bucketIndex) - 1;
+    }
+}
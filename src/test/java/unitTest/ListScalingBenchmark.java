@@ -0,0 +1,216 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Data-size sweep for the list endpoints. The server is bulk-seeded to each
+ * target size in turn (growing the same store, never starting over) and
+ * {@code GET /todos} and {@code GET /projects} are timed at every step,
+ * together with the response size, the client's parse time and the server's
+ * memory. The sweep stops early if the server can no longer take writes or
+ * serve the list, which is where its heap runs out.
+ * <p>
+ * Tagged {@code benchmark}, so it only runs with {@code ./gradlew benchmark}.
+ * Sizes, server heap and iterations come from {@code perf.scaling.*}.
+ */
+@Tag("benchmark")
+public class ListScalingBenchmark {
+
+    private static final int SEED_WORKERS = 32;
+    private static final int PARSE_REPEATS = 3;
+
+    private static BenchmarkFixture fixture;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        // fixed heap, so the point where the server runs out of memory is reproducible
+        fixture = BenchmarkFixture.start("listScaling", ServerManager.onFreePort(
+                BenchmarkFixture.serverFlags("perf.scaling.serverJvmFlags", "-Xmx1g")));
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldScaleListEndpointsWithStoreSize() throws Exception {
+        int[] storeSizes = Arrays.stream(System.getProperty("perf.scaling.sizes",
+                        "10000,30000,100000,300000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .sorted()
+                .toArray();
+        BenchmarkRunner runner = new BenchmarkRunner(
+                Integer.getInteger("perf.scaling.iterations", 10),
+                Integer.getInteger("perf.warmup.max", 6),
+                Double.parseDouble(System.getProperty("perf.cv", "0.10")));
+        String serverJvmFlags = String.join(" ", fixture.getServer().getJvmFlags());
+
+        PayloadCorpus todoCorpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.TODO, 1200, PayloadCorpus.DEFAULT_SEED);
+        PayloadCorpus projectCorpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.PROJECT, 1200, PayloadCorpus.DEFAULT_SEED);
+        int todos = countEntities("todos");
+        int projects = countEntities("projects");
+
+        List<ScalingPoint> todoCurve = new ArrayList<>();
+        List<ScalingPoint> projectCurve = new ArrayList<>();
+        for (int size : storeSizes) {
+            // ---- grow the store to the target size ----
+            todos += seed("todos", todoCorpus, size - todos, serverJvmFlags);
+            projects += seed("projects", projectCorpus, size - projects, serverJvmFlags);
+            if (todos < size || projects < size) {
+                recordHeapExhausted(Math.min(todos, projects), serverJvmFlags);
+                break;
+            }
+
+            // ---- time the full listings ----
+            ScalingPoint todoPoint = measureList("todos", todos, runner, serverJvmFlags);
+            ScalingPoint projectPoint = measureList("projects", projects, runner, serverJvmFlags);
+            if (todoPoint == null || projectPoint == null) {
+                recordHeapExhausted(size, serverJvmFlags);
+                break;
+            }
+            todoCurve.add(todoPoint);
+            projectCurve.add(projectPoint);
+        }
+
+        assertFalse(todoCurve.isEmpty(), "The server could not serve even the smallest store size");
+        System.out.println(formatCurve("GET /todos", todoCurve));
+        System.out.println(formatCurve("GET /projects", projectCurve));
+    }
+
+    // ---------- measurement ----------
+
+    /**
+     * Times the full listing at the current store size; null if the server failed to serve it.
+     */
+    private ScalingPoint measureList(String collection, int storeSize, BenchmarkRunner runner,
+                                     String serverJvmFlags) throws Exception {
+        String path = "/" + collection;
+        byte[][] lastBody = new byte[1][];
+        ConnectionStats connectionsBefore = fixture.getTransport().getStats();
+        BenchmarkRunner.Result result;
+        try {
+            result = runner.run(storeSize, (n, latencies) -> {
+                long requestStart = System.nanoTime();
+                TransportResponse response = fixture.getTransport().send("GET", path, null);
+                latencies.recordValue(System.nanoTime() - requestStart);
+                assertEquals(200, response.getStatusCode());
+                lastBody[0] = response.getBody();
+            });
+        } catch (Exception | AssertionError e) {
+            e.printStackTrace();
+            return null;
+        }
+        BackgroundSampler.Interval server = fixture.interval(result.getStartMillis(), result.getEndMillis());
+        ConnectionStats connections = fixture.getTransport().getStats().since(connectionsBefore);
+
+        // parse outside the timed loop, so the request latency stays a server number;
+        // streamed, so the client's own heap does not limit the sweep
+        double parseMs = Double.MAX_VALUE;
+        for (int i = 0; i < PARSE_REPEATS; i++) {
+            long parseStart = System.nanoTime();
+            int listed = StreamingExtractor.count(lastBody[0], collection);
+            parseMs = Math.min(parseMs, (System.nanoTime() - parseStart) / 1e6);
+            assertTrue(listed >= storeSize, "Expected at least " + storeSize + " " + collection + ", got " + listed);
+        }
+
+        ResultRecord record = ResultRecord.forStep("list" + capitalize(collection), result, server, connections)
+                .set("serverJvmFlags", serverJvmFlags)
+                .set("responseBytes", lastBody[0].length)
+                .set("clientParseMs", parseMs);
+        fixture.record(record);
+        return new ScalingPoint(storeSize, result.getLatencies().getMean() / 1e6, lastBody[0].length,
+                parseMs, server.getPeakRssBytes());
+    }
+
+    /**
+     * Creates {@code count} entities and records the seeding rate.
+     *
+     * @return how many were created; fewer than asked once the server stops accepting writes
+     */
+    private int seed(String collection, PayloadCorpus corpus, int count, String serverJvmFlags) throws Exception {
+        if (count <= 0) {
+            return 0;
+        }
+        ConnectionStats connectionsBefore = fixture.getTransport().getStats();
+        StoreSeeder.Result seeded = new StoreSeeder(fixture.getTransport(), SEED_WORKERS)
+                .seed(collection, count, corpus::get);
+        BackgroundSampler.Interval server = fixture.interval(seeded.getStartMillis(), seeded.getEndMillis());
+        fixture.record(seeded.toRecord(server, fixture.getTransport().getStats().since(connectionsBefore))
+                .set("serverJvmFlags", serverJvmFlags));
+        return seeded.getCreated();
+    }
+
+    private void recordHeapExhausted(int storeSize, String serverJvmFlags) throws IOException {
+        System.out.println("Server stopped serving at " + storeSize + " entities per collection ("
+                + serverJvmFlags + ", server " + (fixture.getServer().isRunning() ? "still running" : "exited") + ")");
+        long now = System.currentTimeMillis();
+        fixture.record(new ResultRecord("heapExhausted")
+                .set("numObjects", storeSize)
+                .set("serverJvmFlags", serverJvmFlags)
+                .server(fixture.interval(now, now)));
+    }
+
+    // ---------- helpers ----------
+
+    private int countEntities(String collection) throws Exception {
+        TransportResponse response = fixture.getTransport().send("GET", "/" + collection, null);
+        assertEquals(200, response.getStatusCode());
+        return StreamingExtractor.count(response.getBody(), collection);
+    }
+
+    /**
+     * Table of the sweep with the local scaling exponent between consecutive
+     * sizes: about 1 means list latency grows linearly with the store, clearly
+     * more means the server degrades worse than linearly.
+     */
+    static String formatCurve(String label, List<ScalingPoint> curve) {
+        StringBuilder table = new StringBuilder(label).append(" scaling\n");
+        table.append(String.format("%12s %12s %14s %12s %14s %10s%n",
+                "entities", "meanMs", "responseBytes", "parseMs", "serverRssMB", "exponent"));
+        for (int i = 0; i < curve.size(); i++) {
+            ScalingPoint p = curve.get(i);
+            String exponent = "";
+            if (i > 0) {
+                ScalingPoint prev = curve.get(i - 1);
+                double k = Math.log(p.meanMs / prev.meanMs) / Math.log((double) p.entities / prev.entities);
+                exponent = String.format("%.2f%s", k, k > RegressionComparator.SUPERLINEAR_EXPONENT ? " !" : "");
+            }
+            table.append(String.format("%12d %12.2f %14d %12.2f %14.1f %10s%n",
+                    p.entities, p.meanMs, p.responseBytes, p.parseMs, p.serverRssBytes / 1048576.0, exponent));
+        }
+        return table.toString();
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    /**
+     * One step of the sweep.
+     */
+    static final class ScalingPoint {
+        private final int entities;
+        private final double meanMs;
+        private final long responseBytes;
+        private final double parseMs;
+        private final long serverRssBytes;
+
+        ScalingPoint(int entities, double meanMs, long responseBytes, double parseMs, long serverRssBytes) {
+            this.entities = entities;
+            this.meanMs = meanMs;
+            this.responseBytes = responseBytes;
+            this.parseMs = parseMs;
+            this.serverRssBytes = serverRssBytes;
+        }
+    }
+}
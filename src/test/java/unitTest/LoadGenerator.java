@@ -0,0 +1,366 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Open-loop load generator that drives the API from N concurrent workers.
+ * Requests are released on a fixed schedule (the target arrival rate), not
+ * when the previous response comes back, so a slow server builds up a queue
+ * instead of quietly lowering the offered load.
+ * <p>
+ * Every request is timed twice. The service time runs from the actual send
+ * to the response. The corrected latency runs from the request's scheduled
+ * send time, so the time it spent waiting for a free worker behind a slow
+ * response counts too. Without that correction for coordinated omission a
+ * stalled server hides most of its stall from the percentiles.
+ * <p>
+ * A {@link #closedLoop closed-loop} generator has no schedule: each worker
+ * sends, waits for the response, thinks, and sends again, like a fixed
+ * population of users. Its offered load falls as the server slows down, so
+ * it answers "what does each user see" rather than "how does the server
+ * cope with this rate". With no scheduled send time there is nothing to
+ * correct, and its corrected latencies are its service times.
+ */
+public class LoadGenerator {
+
+    /**
+     * A single request against the API.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @param workerId index of the worker sending the request
+         * @param sequence global sequence number of the request
+         * @return HTTP status code of the response
+         */
+        int execute(int workerId, long sequence) throws Exception;
+    }
+
+    /**
+     * Pause a closed-loop worker takes after each response before it sends
+     * the next request, like a user reading a page. Think time is never part
+     * of the measured latency.
+     */
+    @FunctionalInterface
+    public interface ThinkTime {
+        /**
+         * @param workerId index of the worker about to pause
+         * @return pause in nanoseconds; 0 for none
+         */
+        long nextPauseNanos(int workerId);
+    }
+
+    private final int workers;
+    private final double targetRatePerSecond;
+    private final ThinkTime thinkTime;
+
+    /**
+     * Open-loop generator.
+     *
+     * @param workers             number of concurrent (virtual thread) workers
+     * @param targetRatePerSecond arrival rate across all workers, in requests per second
+     */
+    public LoadGenerator(int workers, double targetRatePerSecond) {
+        this(workers, targetRatePerSecond, null);
+        if (targetRatePerSecond <= 0) {
+            throw new IllegalArgumentException("targetRatePerSecond must be positive");
+        }
+    }
+
+    private LoadGenerator(int workers, double targetRatePerSecond, ThinkTime thinkTime) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        this.workers = workers;
+        this.targetRatePerSecond = targetRatePerSecond;
+        this.thinkTime = thinkTime;
+    }
+
+    /**
+     * Closed-loop generator: every worker sends its next request as soon as
+     * it has thought about the previous response.
+     *
+     * @param workers   number of concurrent (virtual thread) workers, i.e. simulated users
+     * @param thinkTime pause after each response, or null for none
+     */
+    public static LoadGenerator closedLoop(int workers, ThinkTime thinkTime) {
+        return new LoadGenerator(workers, 0, thinkTime);
+    }
+
+    public boolean isClosedLoop() {
+        return targetRatePerSecond == 0;
+    }
+
+    /**
+     * Sends {@code totalRequests} requests, at the target rate when open-loop,
+     * and merges the per-worker results.
+     *
+     * @param totalRequests number of requests to send
+     * @param operation     request to execute
+     * @return merged result for the whole run
+     */
+    public LoadResult run(int totalRequests, Operation operation) {
+        return run(totalRequests, operation, new String[] {"all"}, sequence -> 0);
+    }
+
+    /**
+     * Same as {@link #run(int, Operation)}, with results also
+     * broken down by request type, e.g. the operations of a mixed workload.
+     *
+     * @param typeNames name of each request type
+     * @param typeOf    index into {@code typeNames} of the request with a sequence number
+     */
+    public LoadResult run(int totalRequests, Operation operation, String[] typeNames, LongToIntFunction typeOf) {
+        // a period of 0 makes every request due at once: the closed loop's "send when ready"
+        long periodNanos = isClosedLoop() ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / targetRatePerSecond);
+        AtomicLong nextTicket = new AtomicLong();
+        long startNanos = System.nanoTime();
+
+        List<Future<WorkerResult>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                final int workerId = w;
+                futures.add(executor.submit(() ->
+                        runWorker(workerId, totalRequests, operation, thinkTime, typeNames.length, typeOf,
+                                nextTicket, startNanos, periodNanos)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        List<WorkerResult> results = new ArrayList<>(workers);
+        for (Future<WorkerResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while collecting worker results", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+        return LoadResult.merge(workers, targetRatePerSecond, elapsedNanos, typeNames, results);
+    }
+
+    private static WorkerResult runWorker(
+            int workerId,
+            int totalRequests,
+            Operation operation,
+            ThinkTime thinkTime,
+            int types,
+            LongToIntFunction typeOf,
+            AtomicLong nextTicket,
+            long startNanos,
+            long periodNanos
+    ) {
+        WorkerResult result = new WorkerResult(types);
+        long ticket;
+        while ((ticket = nextTicket.getAndIncrement()) < totalRequests) {
+            long intendedStart = startNanos + ticket * periodNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long sendNanos = System.nanoTime();
+            if (periodNanos == 0) {
+                intendedStart = sendNanos;
+            }
+            boolean ok;
+            try {
+                int status = operation.execute(workerId, ticket);
+                ok = status >= 200 && status < 300;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long endNanos = System.nanoTime();
+            result.record(typeOf.applyAsInt(ticket), endNanos - sendNanos, endNanos - intendedStart, ok);
+
+            if (thinkTime != null) {
+                long pause = thinkTime.nextPauseNanos(workerId);
+                if (pause > 0) {
+                    LockSupport.parkNanos(pause);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Results collected by one worker, per request type. Only touched by its
+     * own thread until the run completes, so no synchronization is needed.
+     */
+    static final class WorkerResult {
+        private final LatencyHistogram[] latencies;
+        private final LatencyHistogram[] correctedLatencies;
+        private final int[] counts;
+        private final int[] errors;
+
+        WorkerResult(int types) {
+            latencies = new LatencyHistogram[types];
+            correctedLatencies = new LatencyHistogram[types];
+            counts = new int[types];
+            errors = new int[types];
+        }
+
+        void record(int type, long latencyNanos, long correctedNanos, boolean ok) {
+            if (latencies[type] == null) {
+                latencies[type] = new LatencyHistogram();
+                correctedLatencies[type] = new LatencyHistogram();
+            }
+            latencies[type].recordValue(latencyNanos);
+            correctedLatencies[type].recordValue(correctedNanos);
+            counts[type]++;
+            if (!ok) {
+                errors[type]++;
+            }
+        }
+    }
+
+    /**
+     * Merged outcome of a load run.
+     */
+    public static final class LoadResult {
+        private final int workers;
+        private final double targetRatePerSecond;
+        private final int requests;
+        private final int errors;
+        private final long elapsedNanos;
+        private final LatencyHistogram latencies;
+        private final LatencyHistogram correctedLatencies;
+        private final Map<String, LoadResult> byType;
+
+        private LoadResult(int workers, double targetRatePerSecond, int requests, int errors, long elapsedNanos,
+                           LatencyHistogram latencies, LatencyHistogram correctedLatencies,
+                           Map<String, LoadResult> byType) {
+            this.workers = workers;
+            this.targetRatePerSecond = targetRatePerSecond;
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            this.correctedLatencies = correctedLatencies;
+            this.byType = byType;
+        }
+
+        static LoadResult merge(int workers, double targetRate, long elapsedNanos, String[] typeNames,
+                                List<WorkerResult> results) {
+            int totalRequests = 0;
+            for (WorkerResult r : results) {
+                for (int count : r.counts) {
+                    totalRequests += count;
+                }
+            }
+
+            Map<String, LoadResult> byType = new LinkedHashMap<>();
+            int totalErrors = 0;
+            LatencyHistogram all = new LatencyHistogram();
+            LatencyHistogram allCorrected = new LatencyHistogram();
+            for (int type = 0; type < typeNames.length; type++) {
+                int requests = 0;
+                int errors = 0;
+                LatencyHistogram latencies = new LatencyHistogram();
+                LatencyHistogram corrected = new LatencyHistogram();
+                for (WorkerResult r : results) {
+                    if (r.latencies[type] != null) {
+                        requests += r.counts[type];
+                        errors += r.errors[type];
+                        latencies.add(r.latencies[type]);
+                        corrected.add(r.correctedLatencies[type]);
+                    }
+                }
+                totalErrors += errors;
+                all.add(latencies);
+                allCorrected.add(corrected);
+                // each type was offered its share of the overall rate
+                double typeRate = totalRequests > 0 ? targetRate * requests / totalRequests : 0.0;
+                byType.put(typeNames[type], new LoadResult(workers, typeRate, requests, errors, elapsedNanos,
+                        latencies, corrected, Collections.emptyMap()));
+            }
+            return new LoadResult(workers, targetRate, totalRequests, totalErrors, elapsedNanos, all, allCorrected,
+                    Collections.unmodifiableMap(byType));
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        /** Offered arrival rate; 0 for a closed-loop run, which has none. */
+        public double getTargetRatePerSecond() {
+            return targetRatePerSecond;
+        }
+
+        public boolean isClosedLoop() {
+            return targetRatePerSecond == 0;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public long getDurationMs() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /** Completed requests per second over the whole run. */
+        public double getThroughput() {
+            return elapsedNanos > 0 ? requests / (elapsedNanos / 1e9) : 0.0;
+        }
+
+        public double getMeanLatencyMs() {
+            return latencies.getMean() / 1e6;
+        }
+
+        /**
+         * @param percentile value between 0 and 100
+         * @return service time at that percentile in milliseconds
+         */
+        public double getLatencyPercentileMs(double percentile) {
+            return latencies.getValueAtPercentileMs(percentile);
+        }
+
+        /**
+         * Latency at a percentile, measured from each request's scheduled
+         * send time.
+         *
+         * @param percentile value between 0 and 100
+         * @return corrected latency at that percentile in milliseconds
+         */
+        public double getCorrectedLatencyPercentileMs(double percentile) {
+            return correctedLatencies.getValueAtPercentileMs(percentile);
+        }
+
+        /** Merged service times (actual send to response) of all workers. */
+        public LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        /** Merged latencies from scheduled send to response, corrected for coordinated omission. */
+        public LatencyHistogram getCorrectedLatencies() {
+            return correctedLatencies;
+        }
+
+        /**
+         * Results of each request type, in the order the types were given.
+         * A run without types has the single type "all".
+         */
+        public Map<String, LoadResult> getByType() {
+            return byType;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Soak test for server memory leaks. For a long time (two hours by default)
+ * it repeats one cycle: create a few categories, a project with a batch of
+ * tasks, link every task to two categories, then delete all of it. Every
+ * so often, between cycles, it takes a {@link ClassHistogram} of the server,
+ * which forces a full GC, so the snapshot is what the server still retains
+ * once all the cycle's entities are gone.
+ * <p>
+ * After dropping the first fifth of the snapshots (caches and pools warming
+ * up), a {@link GrowthTrend} is fitted against cycles completed to the live
+ * heap, the live entity ({@code ThingInstance}) count and the live link
+ * ({@code RelationshipInstance}) count; the test fails if any grows without
+ * bound. Every snapshot is also recorded as a {@code soakSnapshot} row.
+ * <p>
+ * Tagged {@code soak} and run with {@code ./gradlew soak}. Length, snapshot
+ * interval, batch size, tolerances and server flags come from
+ * {@code perf.soak.*}.
+ */
+@Tag("soak")
+public class MemorySoakTest {
+
+    private static final int WORKERS = 16;
+    private static final int CATEGORIES_PER_CYCLE = 5;
+    private static final int CATEGORIES_PER_TODO = 2;
+    private static final int MIN_FITTED_SNAPSHOTS = 5;
+
+    private static BenchmarkFixture fixture;
+    private static GraphWorkload graphs;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        // one sample a second keeps about 18 hours in the sampler's buffer
+        fixture = BenchmarkFixture.start("memorySoak", ServerManager.onFreePort(
+                        BenchmarkFixture.serverFlags("perf.soak.serverJvmFlags", "-Xmx256m")).withGcLog(),
+                1000, HttpTransport::fromSystemProperty);
+        graphs = new GraphWorkload(fixture.getTransport(), WORKERS);
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldReturnMemoryAfterCreateLinkDeleteCycles() throws Exception {
+        double minutes = Double.parseDouble(System.getProperty("perf.soak.minutes", "120"));
+        long snapshotMillis = Long.getLong("perf.soak.snapshotSeconds", 60) * 1000;
+        int batch = Integer.getInteger("perf.soak.batch", 200);
+        double heapTolerance = Double.parseDouble(System.getProperty("perf.soak.heapTolerance", "0.05"));
+        long countTolerance = Long.getLong("perf.soak.countTolerance", 10);
+        // categories, project, tasks, links, then deleting all of them
+        long requestsPerCycle = 2 * (CATEGORIES_PER_CYCLE + 1 + batch) + (long) batch * CATEGORIES_PER_TODO;
+
+        List<ClassHistogram> snapshots = new ArrayList<>();
+        List<Long> snapshotCycles = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + (long) (minutes * 60_000);
+        long lastSnapshotTime = startTime;
+        long cycles = 0;
+        snapshots.add(snapshot(cycles, requestsPerCycle, startTime, startTime));
+        snapshotCycles.add(cycles);
+        while (System.currentTimeMillis() < deadline) {
+            runCycle(batch);
+            cycles++;
+            long now = System.currentTimeMillis();
+            if (now - lastSnapshotTime >= snapshotMillis || now >= deadline) {
+                snapshots.add(snapshot(cycles, requestsPerCycle, startTime, lastSnapshotTime));
+                snapshotCycles.add(cycles);
+                lastSnapshotTime = System.currentTimeMillis();
+            }
+        }
+
+        int from = snapshots.size() / 5;
+        int fitted = snapshots.size() - from;
+        assertTrue(fitted >= MIN_FITTED_SNAPSHOTS, "only " + fitted + " snapshots to fit; raise perf.soak.minutes"
+                + " or lower perf.soak.snapshotSeconds");
+        double[] x = new double[fitted];
+        double[] heap = new double[fitted];
+        double[] entities = new double[fitted];
+        double[] links = new double[fitted];
+        for (int i = 0; i < fitted; i++) {
+            ClassHistogram histogram = snapshots.get(from + i);
+            x[i] = snapshotCycles.get(from + i);
+            heap[i] = histogram.getTotalBytes();
+            entities[i] = histogram.getInstances(ClassHistogram.THING_INSTANCE);
+            links[i] = histogram.getInstances(ClassHistogram.RELATIONSHIP_INSTANCE);
+        }
+        ClassHistogram first = snapshots.get(from);
+        ClassHistogram last = snapshots.get(snapshots.size() - 1);
+        List<GrowthTrend> trends = Arrays.asList(
+                GrowthTrend.fit("live heap bytes", x, heap, Math.max(heapTolerance * first.getTotalBytes(), 1 << 20)),
+                GrowthTrend.fit("live entities", x, entities, countTolerance),
+                GrowthTrend.fit("live links", x, links, countTolerance));
+
+        StringBuilder report = new StringBuilder(String.format(
+                "%d cycles of %d tasks in %.1f min, %d snapshots (%d fitted); live heap %d -> %d bytes%n",
+                cycles, batch, (System.currentTimeMillis() - startTime) / 60_000.0, snapshots.size(), fitted,
+                first.getTotalBytes(), last.getTotalBytes()));
+        trends.forEach(trend -> report.append("  ").append(trend).append('\n'));
+        report.append("  largest growth by class since the first fitted snapshot:\n");
+        last.topGrowth(first, 10).forEach(line -> report.append("    ").append(line).append('\n'));
+        System.out.print(report);
+
+        for (GrowthTrend trend : trends) {
+            assertFalse(trend.isUnbounded(), "server retains memory across cycles:\n" + report);
+        }
+    }
+
+    /** Creates a small graph and deletes it again. */
+    private void runCycle(int batch) throws Exception {
+        String[] categories = graphs.createCategories(CATEGORIES_PER_CYCLE);
+        GraphWorkload.Graph graph = graphs.build(batch, categories, CATEGORIES_PER_TODO);
+        graphs.deleteAll("todos", graph.getTodoIds());
+        graphs.deleteAll("projects", new String[]{graph.getProjectId()});
+        graphs.deleteAll("categories", categories);
+    }
+
+    private ClassHistogram snapshot(long cycles, long requestsPerCycle, long startTime, long since)
+            throws IOException {
+        ClassHistogram histogram = ClassHistogram.capture(fixture.getServer().getProcess());
+        long now = System.currentTimeMillis();
+        fixture.record(new ResultRecord("soakSnapshot")
+                .set("numObjects", cycles)
+                .set("requests", cycles * requestsPerCycle)
+                .set("durationMs", now - startTime)
+                .server(fixture.interval(since, now))
+                .liveHeap(histogram));
+        return histogram;
+    }
+}
@@ -0,0 +1,71 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs mixed read/write workloads ({@link WorkloadDefinition}) against one
+ * server and records a row per operation type and one for the whole mix.
+ * <p>
+ * Tagged {@code benchmark}. Workloads come from {@code perf.workloads}, a
+ * comma-separated list of names under {@code src/test/resources/workloads}
+ * (without {@code .json}) or paths to definition files, e.g.
+ * {@code ./gradlew benchmark -Dperf.workloads=read-heavy,/tmp/mine.json}.
+ */
+@Tag("benchmark")
+public class MixedWorkloadBenchmark {
+
+    private static BenchmarkFixture fixture;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("mixedWorkload");
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldRunEachWorkloadMix() throws Exception {
+        for (String name : System.getProperty("perf.workloads", "read-heavy,write-heavy").split(",")) {
+            WorkloadDefinition workload = load(name.trim());
+            WorkloadExecutor executor = new WorkloadExecutor(workload, fixture.getTransport());
+            try {
+                executor.prepare();
+
+                ConnectionStats connectionsBefore = fixture.getTransport().getStats();
+                long startTime = System.currentTimeMillis();
+                WorkloadExecutor.Result result = executor.run();
+                BackgroundSampler.Interval server = fixture.interval(startTime, System.currentTimeMillis());
+                ConnectionStats connections = fixture.getTransport().getStats().since(connectionsBefore);
+                for (ResultRecord record : result.toRecords(server, connections)) {
+                    fixture.record(record);
+                }
+                System.out.println(result.format());
+
+                assertEquals(workload.getRequests(), result.getTotal().getRequests());
+                assertEquals(0, result.getTotal().getErrors(), workload.getName() + " had failed requests");
+            } finally {
+                executor.cleanUp();
+            }
+        }
+    }
+
+    private static WorkloadDefinition load(String name) throws IOException {
+        Path file = Paths.get(name);
+        if (name.endsWith(".json") && Files.isRegularFile(file)) {
+            return WorkloadDefinition.load(file);
+        }
+        return WorkloadDefinition.fromResource("workloads/" + name + ".json");
+    }
+}
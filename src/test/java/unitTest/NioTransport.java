@@ -0,0 +1,228 @@
+package unitTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal HTTP/1.1 client over raw {@link SocketChannel}s. Connections are
+ * kept alive in a pool, and {@link #sendAll} pipelines a batch of requests
+ * on one connection: all requests are written before any response is read
+ * ({@link PipeliningBenchmark} measures what that gains).
+ * Only what the Todo Manager API sends back is supported (Content-Length or
+ * chunked bodies, no HEAD, no TLS).
+ */
+public class NioTransport implements HttpTransport {
+
+    private final InetSocketAddress address;
+    private final String hostHeader;
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong pipelined = new AtomicLong();
+
+    public NioTransport(String baseUri) {
+        URI uri = URI.create(baseUri);
+        int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        this.address = new InetSocketAddress(uri.getHost(), port);
+        this.hostHeader = uri.getHost() + ":" + port;
+    }
+
+    @Override
+    public TransportResponse send(String method, String path, byte[] body) throws IOException {
+        return sendAll(List.of(new TransportRequest(method, path, body))).get(0);
+    }
+
+    @Override
+    public List<TransportResponse> sendAll(List<TransportRequest> batch) throws IOException {
+        Connection connection = acquire();
+        boolean reusable = false;
+        try {
+            for (TransportRequest r : batch) {
+                connection.write(encode(r));
+            }
+            requests.addAndGet(batch.size());
+            pipelined.addAndGet(Math.max(0, batch.size() - 1));
+
+            List<TransportResponse> responses = new ArrayList<>(batch.size());
+            reusable = true;
+            for (int i = 0; i < batch.size(); i++) {
+                responses.add(connection.readResponse());
+                reusable &= connection.keepAlive;
+            }
+            return responses;
+        } finally {
+            if (reusable) {
+                idle.push(connection);
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public ConnectionStats getStats() {
+        return new ConnectionStats(requests.get(), connectionsOpened.get(), pipelined.get());
+    }
+
+    @Override
+    public String getName() {
+        return "nio";
+    }
+
+    @Override
+    public void close() {
+        Connection c;
+        while ((c = idle.poll()) != null) {
+            c.close();
+        }
+    }
+
+    private Connection acquire() throws IOException {
+        Connection c = idle.poll();
+        if (c != null) {
+            return c;
+        }
+        connectionsOpened.incrementAndGet();
+        return new Connection(SocketChannel.open(address));
+    }
+
+    private byte[] encode(TransportRequest r) {
+        byte[] body = r.getBody() == null ? new byte[0] : r.getBody();
+        StringBuilder head = new StringBuilder()
+                .append(r.getMethod()).append(' ').append(r.getPath()).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(hostHeader).append("\r\n")
+                .append("Connection: keep-alive\r\n");
+        if (r.getBody() != null) {
+            head.append("Content-Type: application/json\r\n");
+        }
+        head.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] message = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, message, 0, headBytes.length);
+        System.arraycopy(body, 0, message, headBytes.length, body.length);
+        return message;
+    }
+
+    /**
+     * One keep-alive connection with its own read buffer. Used by one thread at a time.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        private boolean keepAlive = true;
+
+        Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            channel.socket().setTcpNoDelay(true);
+            in.flip(); // start empty, in read mode
+        }
+
+        void write(byte[] bytes) throws IOException {
+            ByteBuffer out = ByteBuffer.wrap(bytes);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+
+        TransportResponse readResponse() throws IOException {
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.split(" ", 3)[1]);
+
+            long contentLength = -1;
+            boolean chunked = false;
+            keepAlive = !statusLine.startsWith("HTTP/1.0");
+            String line;
+            while (!(line = readLine()).isEmpty()) {
+                int colon = line.indexOf(':');
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                if (name.equals("content-length")) {
+                    contentLength = Long.parseLong(value);
+                } else if (name.equals("transfer-encoding")) {
+                    chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+                } else if (name.equals("connection")) {
+                    keepAlive = !value.equalsIgnoreCase("close");
+                }
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (chunked) {
+                long size;
+                while ((size = Long.parseLong(readLine().split(";")[0].trim(), 16)) > 0) {
+                    readFully(body, size);
+                    readLine();
+                }
+                while (!readLine().isEmpty()) {
+                    // trailers
+                }
+            } else if (contentLength >= 0) {
+                readFully(body, contentLength);
+            } else if (status != 204 && status != 304) {
+                // body delimited by connection close
+                keepAlive = false;
+                while (fill()) {
+                    body.write(in.array(), in.position(), in.remaining());
+                    in.position(in.limit());
+                }
+            }
+            return new TransportResponse(status, body.toByteArray());
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                if (!in.hasRemaining() && !fill()) {
+                    throw new EOFException("Connection closed mid-response");
+                }
+                char c = (char) (in.get() & 0xff);
+                if (c == '\n') {
+                    int len = line.length();
+                    if (len > 0 && line.charAt(len - 1) == '\r') {
+                        line.setLength(len - 1);
+                    }
+                    return line.toString();
+                }
+                line.append(c);
+            }
+        }
+
+        private void readFully(ByteArrayOutputStream sink, long size) throws IOException {
+            long remaining = size;
+            while (remaining > 0) {
+                if (!in.hasRemaining() && !fill()) {
+                    throw new EOFException("Connection closed mid-body");
+                }
+                int n = (int) Math.min(remaining, in.remaining());
+                sink.write(in.array(), in.position(), n);
+                in.position(in.position() + n);
+                remaining -= n;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            return read > 0;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
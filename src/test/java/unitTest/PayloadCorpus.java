@@ -0,0 +1,159 @@
+package unitTest;
+
+import com.github.javafaker.Faker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.json.JSONObject;
+
+/**
+ * A fixed set of request payloads generated ahead of time from a seed and
+ * serialized once to UTF-8 bytes, so the timed perf loops only send bytes
+ * and never touch Faker or JSONObject. The same seed always yields the same
+ * payloads. Corpora are cached in a memory-mapped file that later runs reuse,
+ * as long as the generator still produces the same payloads from the seed.
+ */
+public class PayloadCorpus {
+
+    /** Default seed for the perf tests, so every run sends identical payloads. */
+    public static final long DEFAULT_SEED = 429L;
+
+    private static final Path CACHE_DIR = Paths.get("build", "perf", "corpus");
+    private static final int MAGIC = 0x50434f52; // "PCOR"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Kind of entity the payloads describe.
+     */
+    public enum Kind {
+        TODO(RandomDataGenerator::createRandomTodo),
+        PROJECT(RandomDataGenerator::createRandomProject);
+
+        private final Function<Faker, JSONObject> generator;
+
+        Kind(Function<Faker, JSONObject> generator) {
+            this.generator = generator;
+        }
+    }
+
+    private final byte[][] payloads;
+
+    private PayloadCorpus(byte[][] payloads) {
+        this.payloads = payloads;
+    }
+
+    /**
+     * Generates a corpus in memory.
+     *
+     * @param kind entity kind
+     * @param size number of payloads
+     * @param seed Faker seed
+     */
+    public static PayloadCorpus generate(Kind kind, int size, long seed) {
+        Faker faker = new Faker(new Random(seed));
+        byte[][] payloads = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            payloads[i] = kind.generator.apply(faker).toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return new PayloadCorpus(payloads);
+    }
+
+    /**
+     * Loads a cached corpus for the given parameters, or generates and caches
+     * it if this is the first run that needs it. The file name only holds
+     * kind, seed and size, so a cached corpus is only reused if its first
+     * payload is still what the generator makes from the seed; after a change
+     * to {@link RandomDataGenerator} or Faker the corpus is regenerated.
+     */
+    public static PayloadCorpus loadOrGenerate(Kind kind, int size, long seed) {
+        Path file = CACHE_DIR.resolve(kind.name().toLowerCase() + "-" + seed + "-" + size + ".corpus");
+        if (Files.isRegularFile(file)) {
+            try {
+                PayloadCorpus cached = load(file);
+                if (cached.size() == size && Arrays.equals(cached.get(0), generate(kind, 1, seed).get(0))) {
+                    return cached;
+                }
+                // written by an older generator; regenerate below
+            } catch (IOException | RuntimeException e) {
+                // stale or truncated cache file; regenerate below
+            }
+        }
+
+        PayloadCorpus corpus = generate(kind, size, seed);
+        try {
+            corpus.writeTo(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return corpus;
+    }
+
+    public int size() {
+        return payloads.length;
+    }
+
+    /**
+     * @param index any non-negative number; wraps around the corpus size
+     * @return serialized payload
+     */
+    public byte[] get(int index) {
+        return payloads[index % payloads.length];
+    }
+
+    // ---------------- MEMORY-MAPPED CACHE ----------------
+
+    /**
+     * Writes the corpus as [magic, version, count, (length, bytes)*] through a
+     * memory-mapped file. The file is written under a temporary name and moved
+     * into place, so a concurrent reader never sees a partial corpus.
+     */
+    public void writeTo(Path file) throws IOException {
+        long totalBytes = 3L * Integer.BYTES;
+        for (byte[] p : payloads) {
+            totalBytes += Integer.BYTES + p.length;
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(payloads.length);
+            for (byte[] p : payloads) {
+                out.putInt(p.length).put(p);
+            }
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a corpus written by {@link #writeTo(Path)}.
+     */
+    public static PayloadCorpus load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a payload corpus: " + file);
+            }
+            byte[][] payloads = new byte[in.getInt()][];
+            for (int i = 0; i < payloads.length; i++) {
+                payloads[i] = new byte[in.getInt()];
+                in.get(payloads[i]);
+            }
+            return new PayloadCorpus(payloads);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HTTP/1.1 pipelining against sending one request at a time, both over a
+ * single keep-alive {@link NioTransport} connection. Each step sends the same
+ * {@code GET /todos/{id}} requests: sequentially (write, read, write, read),
+ * then in pipelined batches of increasing depth through
+ * {@link NioTransport#sendAll}, where a whole batch is written before any
+ * response is read. Rows are {@code getTodoSequential} and
+ * {@code getTodoPipelined.depth<n>}, with {@code pipelinedRequests} showing
+ * how many requests actually went out behind another.
+ * <p>
+ * A pipelined request's latency is its batch's round trip, since the
+ * responses are handed back together.
+ * <p>
+ * Tagged {@code benchmark}. Requests per iteration and depths come from
+ * {@code perf.pipelining.*}; the transport is always nio, the only one that
+ * pipelines.
+ */
+@Tag("benchmark")
+public class PipeliningBenchmark {
+
+    private static final int TODOS = 64;
+
+    private static BenchmarkFixture fixture;
+    private static List<String> todoIds;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("pipelining", ServerManager.onFreePort(), 50, NioTransport::new);
+
+        PayloadCorpus corpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.TODO, TODOS, PayloadCorpus.DEFAULT_SEED);
+        StoreSeeder.Result seeded = new StoreSeeder(fixture.getTransport(), 1).seed("todos", TODOS, corpus::get);
+        assertEquals(TODOS, seeded.getCreated());
+        todoIds = StreamingExtractor.project(
+                fixture.getTransport().send("GET", "/todos", null).getBody(), "todos", "id");
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldComparePipelinedWithSequentialRequests() throws Exception {
+        int requests = Integer.getInteger("perf.pipelining.requests", 512);
+        int[] depths = Arrays.stream(System.getProperty("perf.pipelining.depths", "2,4,8,16,32").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .sorted()
+                .toArray();
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
+
+        // ---- one request at a time ----
+        ConnectionStats connectionsBefore = fixture.getTransport().getStats();
+        BenchmarkRunner.Result sequential = runner.run(requests, (n, latencies) -> {
+            for (int i = 0; i < n; i++) {
+                long requestStart = System.nanoTime();
+                TransportResponse response = fixture.getTransport().send("GET", "/todos/" + todoId(i), null);
+                latencies.recordValue(System.nanoTime() - requestStart);
+                assertEquals(200, response.getStatusCode());
+            }
+        });
+        ConnectionStats sequentialConnections = fixture.getTransport().getStats().since(connectionsBefore);
+        record("getTodoSequential", sequential, sequentialConnections);
+        assertEquals(0, sequentialConnections.getPipelinedRequests());
+
+        // ---- pipelined batches ----
+        StringBuilder table = new StringBuilder(String.format("%-28s %12s %12s %10s%n",
+                "operation", "requests/s", "p50Ms", "speedup"));
+        appendRow(table, "getTodoSequential", sequential, sequential);
+        for (int depth : depths) {
+            connectionsBefore = fixture.getTransport().getStats();
+            BenchmarkRunner.Result pipelined = runner.run(requests, (n, latencies) -> {
+                for (int first = 0; first < n; first += depth) {
+                    List<TransportRequest> batch = new ArrayList<>(depth);
+                    for (int i = first; i < Math.min(n, first + depth); i++) {
+                        batch.add(new TransportRequest("GET", "/todos/" + todoId(i), null));
+                    }
+                    long batchStart = System.nanoTime();
+                    List<TransportResponse> responses = fixture.getTransport().sendAll(batch);
+                    long batchNanos = System.nanoTime() - batchStart;
+                    for (TransportResponse response : responses) {
+                        latencies.recordValue(batchNanos);
+                        assertEquals(200, response.getStatusCode());
+                    }
+                }
+            });
+            ConnectionStats connections = fixture.getTransport().getStats().since(connectionsBefore);
+            String operation = "getTodoPipelined.depth" + depth;
+            record(operation, pipelined, connections);
+            appendRow(table, operation, pipelined, sequential);
+            assertTrue(connections.getPipelinedRequests() > 0, operation + " sent nothing pipelined");
+        }
+        System.out.print(table);
+    }
+
+    private String todoId(int i) {
+        return todoIds.get(i % todoIds.size());
+    }
+
+    private void record(String operation, BenchmarkRunner.Result result, ConnectionStats connections)
+            throws IOException {
+        BackgroundSampler.Interval server = fixture.interval(result.getStartMillis(), result.getEndMillis());
+        fixture.record(ResultRecord.forStep(operation, result, server, connections));
+    }
+
+    private static void appendRow(StringBuilder table, String operation, BenchmarkRunner.Result result,
+                                  BenchmarkRunner.Result sequential) {
+        table.append(String.format("%-28s %12.0f %12.3f %9.2fx%n", operation, result.getThroughput(),
+                result.getLatencies().getValueAtPercentileMs(50), result.getThroughput() / sequential.getThroughput()));
+    }
+}
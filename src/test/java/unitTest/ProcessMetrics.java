@@ -0,0 +1,216 @@
+package unitTest;
+
+import com.sun.tools.attach.VirtualMachine;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Samples CPU time, resident memory, thread count and GC counters of another
+ * process (the API server under test), keyed on its PID.
+ * CPU, RSS and threads come from {@code /proc/<pid>/stat} and
+ * {@code /proc/<pid>/status}, so they are only available on Linux; GC counters
+ * come from the server's platform MXBeans over a JMX attach. Anything that
+ * cannot be read is reported as -1.
+ */
+public class ProcessMetrics implements AutoCloseable {
+
+    // USER_HZ: the unit of utime/stime in /proc/<pid>/stat on every mainstream Linux
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    // the server may not accept attach connections until its JVM has finished booting
+    private static final long ATTACH_RETRY_NANOS = 1_000_000_000L;
+
+    private final long pid;
+    private final Path statFile;
+    private final Path statusFile;
+
+    private JMXConnector jmxConnector;
+    private List<GarbageCollectorMXBean> gcBeans;
+    private long nextAttachAttemptNanos;
+
+    public ProcessMetrics(Process process) {
+        this(process.pid());
+    }
+
+    public ProcessMetrics(long pid) {
+        this.pid = pid;
+        this.statFile = Paths.get("/proc", String.valueOf(pid), "stat");
+        this.statusFile = Paths.get("/proc", String.valueOf(pid), "status");
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    /**
+     * Reads the current counters of the process.
+     */
+    public Snapshot sample() {
+        long timestamp = System.nanoTime();
+        long cpuTicks = readCpuTicks();
+        long rssBytes = -1;
+        long threads = -1;
+
+        try {
+            for (String line : Files.readAllLines(statusFile)) {
+                if (line.startsWith("VmRSS:")) {
+                    rssBytes = parseKiloBytes(line) * 1024;
+                } else if (line.startsWith("Threads:")) {
+                    threads = Long.parseLong(line.substring("Threads:".length()).trim());
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // process gone or not on Linux
+        }
+
+        long gcCount = -1;
+        long gcTimeMs = -1;
+        List<GarbageCollectorMXBean> beans = gcBeans();
+        if (beans != null) {
+            try {
+                gcCount = 0;
+                gcTimeMs = 0;
+                for (GarbageCollectorMXBean gc : beans) {
+                    gcCount += Math.max(0, gc.getCollectionCount());
+                    gcTimeMs += Math.max(0, gc.getCollectionTime());
+                }
+            } catch (RuntimeException e) {
+                // server went away mid-read
+                gcCount = -1;
+                gcTimeMs = -1;
+            }
+        }
+
+        return new Snapshot(timestamp, cpuTicks, rssBytes, threads, gcCount, gcTimeMs);
+    }
+
+    /**
+     * CPU used by the process between two snapshots, as a percentage of one core.
+     */
+    public static double cpuPercent(Snapshot before, Snapshot after) {
+        if (before.cpuTicks < 0 || after.cpuTicks < 0) {
+            return -1;
+        }
+        double wallSeconds = (after.timestampNanos - before.timestampNanos) / 1e9;
+        if (wallSeconds <= 0) {
+            return 0.0;
+        }
+        return ticksToSeconds(after.cpuTicks - before.cpuTicks) / wallSeconds * 100.0;
+    }
+
+    /**
+     * Converts a difference of {@link Snapshot#getCpuTicks()} values to CPU seconds.
+     */
+    public static double ticksToSeconds(long ticks) {
+        return ticks / (double) CLOCK_TICKS_PER_SECOND;
+    }
+
+    @Override
+    public void close() {
+        if (jmxConnector != null) {
+            try {
+                jmxConnector.close();
+            } catch (IOException ignored) {
+            }
+            jmxConnector = null;
+            gcBeans = null;
+        }
+    }
+
+    // ---------------- /proc PARSING ----------------
+
+    private long readCpuTicks() {
+        try {
+            String stat = new String(Files.readAllBytes(statFile));
+            // comm (field 2) may contain spaces, so split after its closing parenthesis
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split("\\s+");
+            // fields[0] is field 3 (state); utime and stime are fields 14 and 15
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long parseKiloBytes(String statusLine) {
+        String value = statusLine.substring(statusLine.indexOf(':') + 1).trim();
+        return Long.parseLong(value.split("\\s+")[0]);
+    }
+
+    // ---------------- JMX ATTACH ----------------
+
+    private List<GarbageCollectorMXBean> gcBeans() {
+        if (gcBeans == null && System.nanoTime() - nextAttachAttemptNanos >= 0) {
+            nextAttachAttemptNanos = System.nanoTime() + ATTACH_RETRY_NANOS;
+            try {
+                VirtualMachine vm = VirtualMachine.attach(String.valueOf(pid));
+                String address;
+                try {
+                    address = vm.startLocalManagementAgent();
+                } finally {
+                    vm.detach();
+                }
+                jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(address));
+                MBeanServerConnection connection = jmxConnector.getMBeanServerConnection();
+                gcBeans = ManagementFactory.getPlatformMXBeans(connection, GarbageCollectorMXBean.class);
+            } catch (Exception e) {
+                // not up yet, attach disabled, different user, or not a HotSpot JVM
+                gcBeans = null;
+            }
+        }
+        return gcBeans;
+    }
+
+    /**
+     * Point-in-time counters of the sampled process.
+     */
+    public static final class Snapshot {
+        private final long timestampNanos;
+        private final long cpuTicks;
+        private final long rssBytes;
+        private final long threads;
+        private final long gcCount;
+        private final long gcTimeMs;
+
+        Snapshot(long timestampNanos, long cpuTicks, long rssBytes, long threads, long gcCount, long gcTimeMs) {
+            this.timestampNanos = timestampNanos;
+            this.cpuTicks = cpuTicks;
+            this.rssBytes = rssBytes;
+            this.threads = threads;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+        }
+
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+
+        public long getCpuTicks() {
+            return cpuTicks;
+        }
+
+        public long getRssBytes() {
+            return rssBytes;
+        }
+
+        public long getThreads() {
+            return threads;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcTimeMs() {
+            return gcTimeMs;
+        }
+    }
+}
@@ -1,20 +1,20 @@
 package unitTest;
 
 import io.restassured.RestAssured;
-import static io.restassured.RestAssured.given;
-import static java.lang.Thread.sleep;
+import io.restassured.builder.RequestSpecBuilder;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.json.JSONObject;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.MethodOrderer.Random;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -26,7 +26,13 @@ public class ProjectUnitTest {
 
     private int projectId;
     private JSONObject testProject;
-    private static Process apiProcess;
+    private static ServerManager apiServer;
+    private static RequestSpecification apiSpec;
+    private static HttpTransport transport;
+    private static PayloadCorpus projectCorpus;
+    private static BackgroundSampler serverSampler;
+    private static ResultSink results;
+    private static ServerProfiler profiler;
 
     // Constants used in a couple of query tests
     private static final String TARGET_TITLE = "Introduction to Software Validation";
@@ -34,28 +40,27 @@ public class ProjectUnitTest {
 
     @BeforeAll
     public static void beforeAll_startApiAndVerify() throws Exception {
-        // Prepare CSV logging file
-        String csvFile = "src/test/resources/project_performance_results.csv";
-        try (FileWriter writer = new FileWriter(csvFile)) {
-            writer.write("operation,numObjects,duration,cpuUsage,memoryUsage\n"); // Write the header line
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        // Boot the API under test
-        try {
-            apiProcess = Runtime.getRuntime().exec("java -jar runTodoManagerRestAPI-1.5.5.jar");
-            sleep(750); // brief pause for server startup
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        // Configure RestAssured base URI once
-        RestAssured.baseURI = "http://localhost:4567";
+        // Build request payloads up front so the timed loops only send bytes
+        projectCorpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.PROJECT, 1200, PayloadCorpus.DEFAULT_SEED);
+
+        // Boot the API under test and wait until it answers
+        apiServer = ServerManager.onFreePort(ServerManager.jvmFlagsFromSystemProperty());
+        apiServer.start();
+        serverSampler = new BackgroundSampler(new ProcessMetrics(apiServer.getProcess()), 50);
+        serverSampler.start();
+
+        // Per-class request spec rather than the global RestAssured.baseURI, so classes can run in parallel
+        apiSpec = new RequestSpecBuilder().setBaseUri(apiServer.getBaseUri()).build();
+        transport = HttpTransport.fromSystemProperty(apiServer.getBaseUri());
+        results = ResultSink.open("project", transport.getName());
+        results.setServerJvmFlags(String.join(" ", apiServer.getJvmFlags()));
+        profiler = ServerProfiler.fromSystemProperties(apiServer, "project");
+        results.record(new ResultRecord("serverStartup").set("durationMs", apiServer.getTimeToReadyMillis()));
 
         // Smoke check the server
         int code = 404;
         try {
-            HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:4567").openConnection();
+            HttpURLConnection conn = (HttpURLConnection) URI.create(apiServer.getBaseUri()).toURL().openConnection();
             conn.setRequestMethod("GET");
             code = conn.getResponseCode();
             assertEquals(200, code);
@@ -67,9 +72,22 @@ public class ProjectUnitTest {
 
     @AfterAll
     public static void afterAll_shutdownApi() {
-        try {
-            given().when().get("/shutdown");
-        } catch (Exception ignored) {}
+        if (serverSampler != null) {
+            serverSampler.close();
+        }
+        if (transport != null) {
+            transport.close();
+        }
+        if (results != null) {
+            try {
+                results.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (apiServer != null) {
+            apiServer.stop();
+        }
     }
 
     @BeforeEach
@@ -146,56 +164,37 @@ public class ProjectUnitTest {
     }
 
     @Test
-    public void givenMultipleProjects_whenPostRepeatedly() {
+    @Tag("perf")
+    public void givenMultipleProjects_whenPostRepeatedly() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/project_performance_results.csv";
 
-        for (int numObjects : objectCounts) {
-
-            // -------- initial metrics --------
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling before the POST storm
-
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // -------- perform POST /projects numObjects times --------
-            for (int i = 0; i < numObjects; i++) {
-                // you can also use RandomDataGenerator.generateProject() if you prefer
-                JSONObject project = newUniqueProject();
-
-                Response response = given()
-                        .body(project.toString())
-                        .when()
-                        .post("/projects");
-
-                assertEquals(201, response.getStatusCode());
-            }
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            // -------- final metrics --------
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000; // 1-second sampling after operations
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            // -------- log result row to CSV --------
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "createMultipleProjects",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, n -> new ArrayList<Integer>(n), (createdIds, n, latencies) -> {
+                // -------- perform POST /projects n times --------
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("POST", "/projects", projectCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(201, response.getStatusCode());
+                    createdIds.add(response.getJsonInt("id"));
+                }
+            }, createdIds -> {
+                // repeated iterations would otherwise pile thousands of projects onto the server
+                for (int id : createdIds) {
+                    transport.send("DELETE", "/projects/" + id, null);
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("createMultipleProjects", result, server, connections)
+                    .set("profileFile", profiler.stop("createMultipleProjects", numObjects)));
         }
     }
 
@@ -282,26 +281,26 @@ public class ProjectUnitTest {
     // --- Read -------------------------------------------------------------------
 
     @Test
-    public void givenSeededProject_whenListProjectsJson_thenSeededTitleIsPresent() {
+    public void givenSeededProject_whenListProjectsJson_thenSeededTitleIsPresent() throws IOException {
         Response resp = given().when().get("/projects");
 
-        List<Map<String, Object>> list = resp.jsonPath().getList("projects");
-        boolean present = list.stream().anyMatch(p -> testProject.getString("title").equals(p.get("title")));
+        byte[] body = resp.asByteArray();
+        boolean present = StreamingExtractor.find(body, "projects", "title", testProject.getString("title")) != null;
 
         assertEquals(200, resp.getStatusCode());
-        assertFalse(list.isEmpty());
+        assertTrue(StreamingExtractor.count(body, "projects") > 0);
         assertTrue(present);
     }
 
     @Test
-    public void givenSeededProject_whenListProjectsXml_thenSeededTitleIsPresent() {
+    public void givenSeededProject_whenListProjectsXml_thenSeededTitleIsPresent() throws IOException {
         Response resp = given()
                 .header("Accept", ContentType.XML)
                 .contentType(ContentType.XML)
                 .when()
                 .get("/projects");
 
-        List<String> titles = resp.xmlPath().getList("projects.project.title");
+        List<String> titles = StreamingExtractor.project(resp.asByteArray(), "projects", "title");
         assertEquals(200, resp.getStatusCode());
         assertNotNull(titles);
         assertFalse(titles.isEmpty());
@@ -394,56 +393,31 @@ public class ProjectUnitTest {
     // --- Update ----------------------------------------------------------------
 
     @Test
-    public void givenExistingProject_whenPostToId_then200AndUpdated_withPerformance() {
+    @Tag("perf")
+    public void givenExistingProject_whenPostToId_then200AndUpdated_withPerformance() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/project_performance_results.csv";
-
-        for (int numObjects : objectCounts) {
-
-            // -------- initial metrics --------
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling window before POSTs
-
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
 
-            // -------- perform POST updates --------
-            for (int i = 0; i < numObjects; i++) {
-                // use your suite helper for a new project payload
-                JSONObject updatedProject = newUniqueProject();
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-                Response resp = given()
-                        .body(updatedProject.toString())
-                        .when()
-                        .post("/projects/" + projectId);
-
-                assertEquals(200, resp.getStatusCode());
-            }
-
-            // -------- final metrics --------
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000; // 1-second sampling window after POSTs
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            // -------- log to CSV --------
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "amendProjectPost",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // -------- perform POST updates --------
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse resp = transport.send("POST", "/projects/" + projectId, projectCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, resp.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("amendProjectPost", result, server, connections)
+                    .set("profileFile", profiler.stop("amendProjectPost", numObjects)));
         }
     }
 
@@ -458,55 +432,31 @@ public class ProjectUnitTest {
     }
 
     @Test
-    public void givenExistingProject_whenPutToId_then200AndUpdated_withPerformance() {
+    @Tag("perf")
+    public void givenExistingProject_whenPutToId_then200AndUpdated_withPerformance() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/project_performance_results.csv";
-
-        for (int numObjects : objectCounts) {
 
-            // -------- initial metrics --------
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // sample before doing work
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            double initialCpu =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemory =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // -------- perform PUT updates --------
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject updated = newUniqueProject();
-
-                Response resp = given()
-                        .body(updated.toString())
-                        .when()
-                        .put("/projects/" + projectId);
-
-                assertEquals(200, resp.getStatusCode());
-            }
-
-            // -------- final metrics --------
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000; // sample after operations
-
-            double finalCpu =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemory =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpu - initialCpu);
-            long memoryDelta = Math.max(0, finalMemory - initialMemory);
-
-            // -------- write performance entry --------
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "updateProjectPut",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // -------- perform PUT updates --------
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse resp = transport.send("PUT", "/projects/" + projectId, projectCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, resp.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("updateProjectPut", result, server, connections)
+                    .set("profileFile", profiler.stop("updateProjectPut", numObjects)));
         }
     }
 
@@ -550,67 +500,94 @@ public class ProjectUnitTest {
     }
 
     @Test
-    public void givenMultipleProjects_whenDeleteBatch_withPerformance() {
+    @Tag("perf")
+    public void givenMultipleProjects_whenDeleteBatch_withPerformance() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/project_performance_results.csv";
 
-        for (int numObjects : objectCounts) {
-
-            // -------- create multiple projects first --------
-            int[] createdIds = new int[numObjects];
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject project = newUniqueProject();
-                Response response = given()
-                        .body(project.toString())
-                        .when()
-                        .post("/projects");
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, n -> {
+                // -------- create multiple projects first --------
+                int[] createdIds = new int[n];
+
+                for (int i = 0; i < n; i++) {
+                    TransportResponse response = transport.send("POST", "/projects", projectCorpus.get(i));
+
+                    assertEquals(201, response.getStatusCode());
+                    createdIds[i] = response.getJsonInt("id");
+                }
+                return createdIds;
+            }, (createdIds, n, latencies) -> {
+                // -------- delete all created projects --------
+                for (int id : createdIds) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("DELETE", "/projects/" + id, null);
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, response.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("deleteMultipleProjects", result, server, connections)
+                    .set("profileFile", profiler.stop("deleteMultipleProjects", numObjects)));
+        }
+    }
 
-                assertEquals(201, response.getStatusCode());
-                createdIds[i] = response.jsonPath().getInt("id");
+    @Test
+    @Tag("perf")
+    public void givenConcurrentWorkers_whenCreateAndDeleteProjects_withLoad() throws Exception {
+        int[] workerCounts = {1, 2, 4, 8, 16, 32};
+        int requestsPerStep = 600;
+        double targetRate = 200.0; // create+delete pairs per second, across all workers; doubled until the server breaks
+        SaturationSweep sweep = SaturationSweep.fromSystemProperties(targetRate);
+
+        for (int workers : workerCounts) {
+            String breach = null;
+            for (double rate : sweep.getRates()) {
+                LoadGenerator generator = new LoadGenerator(workers, rate);
+                int requests = sweep.requestsAt(rate, requestsPerStep);
+                ConnectionStats connectionsBefore = transport.getStats();
+                profiler.start();
+                long startTime = System.currentTimeMillis();
+                LoadGenerator.LoadResult result = generator.run(requests, (workerId, sequence) -> {
+                    TransportResponse create = transport.send("POST", "/projects",
+                            projectCorpus.get((int) (sequence % projectCorpus.size())));
+                    if (create.getStatusCode() != 201) {
+                        return create.getStatusCode();
+                    }
+                    return transport.send("DELETE", "/projects/" + create.getJsonInt("id"), null).getStatusCode();
+                });
+
+                assertEquals(requests, result.getRequests());
+                if (rate == targetRate) {
+                    assertEquals(0, result.getErrors());
+                }
+
+                BackgroundSampler.Interval server = serverSampler.interval(startTime, System.currentTimeMillis());
+                ConnectionStats connections = transport.getStats().since(connectionsBefore);
+                String profileFile = profiler.stop("concurrentCreateDeleteProject-" + (long) rate + "rps", workers);
+                results.record(ResultRecord.forLoad("concurrentCreateDeleteProject", result, server, connections)
+                        .set("profileFile", profileFile));
+
+                breach = sweep.breach(result);
+                if (breach != null) {
+                    System.out.printf("concurrentCreateDeleteProject: %d workers saturate at %.0f/s (%s)%n",
+                            workers, rate, breach);
+                    results.record(ResultRecord.forLoad("concurrentCreateDeleteProjectSaturation", result, server,
+                            connections));
+                    break;
+                }
             }
-
-            // -------- initial metrics (before deletion burst) --------
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling window
-
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // -------- delete all created projects --------
-            for (int id : createdIds) {
-                Response response = given()
-                        .pathParam("id", id)
-                        .when()
-                        .delete("/projects/{id}");
-
-                assertEquals(200, response.getStatusCode());
+            if (breach == null) {
+                System.out.printf("concurrentCreateDeleteProject: %d workers kept up with every rate swept%n",
+                        workers);
             }
-
-            // -------- final metrics (after deletion burst) --------
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000;
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            // -------- log row to CSV --------
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "deleteMultipleProjects",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
         }
     }
 
@@ -643,4 +620,7 @@ public class ProjectUnitTest {
         assertEquals(200, resp.getStatusCode());
     }
 
+    private static RequestSpecification given() {
+        return RestAssured.given().spec(apiSpec);
+    }
 }
@@ -16,9 +16,19 @@ public class RandomDataGenerator {
      * @return JSONObject representing a fake TODO.
      */
     public static JSONObject createRandomTodo() {
-        String title = FAKER.lorem().sentence();
-        boolean isDone = FAKER.bool().bool();
-        String details = FAKER.lorem().paragraph();
+        return createRandomTodo(FAKER);
+    }
+
+    /**
+     * Builds a random TODO entry from the given (possibly seeded) Faker.
+     *
+     * @param faker source of random values
+     * @return JSONObject representing a fake TODO.
+     */
+    public static JSONObject createRandomTodo(Faker faker) {
+        String title = faker.lorem().sentence();
+        boolean isDone = faker.bool().bool();
+        String details = faker.lorem().paragraph();
 
         return new JSONObject()
                 .put("title", title)
@@ -32,10 +42,20 @@ public class RandomDataGenerator {
      * @return JSONObject representing a fake project.
      */
     public static JSONObject createRandomProject() {
-        String title = FAKER.book().title();
-        boolean completed = FAKER.bool().bool();
-        boolean active = FAKER.bool().bool();
-        String description = FAKER.lorem().paragraph();
+        return createRandomProject(FAKER);
+    }
+
+    /**
+     * Creates a random project object from the given (possibly seeded) Faker.
+     *
+     * @param faker source of random values
+     * @return JSONObject representing a fake project.
+     */
+    public static JSONObject createRandomProject(Faker faker) {
+        String title = faker.book().title();
+        boolean completed = faker.bool().bool();
+        boolean active = faker.bool().bool();
+        String description = faker.lorem().paragraph();
 
         return new JSONObject()
                 .put("title", title)
@@ -43,4 +63,63 @@ public class RandomDataGenerator {
                 .put("active", active)
                 .put("description", description);
     }
+
+    /**
+     * Builds a random TODO entry whose title and description have exactly
+     * the given lengths, for sizing experiments.
+     *
+     * @param faker             source of random values
+     * @param titleLength       characters in the title, at least 1
+     * @param descriptionLength characters in the description
+     * @return JSONObject representing a fake TODO.
+     */
+    public static JSONObject createRandomTodo(Faker faker, int titleLength, int descriptionLength) {
+        return createRandomTodo(faker)
+                .put("title", loremOfLength(faker, titleLength))
+                .put("description", loremOfLength(faker, descriptionLength));
+    }
+
+    /**
+     * Creates a random project object whose title and description have
+     * exactly the given lengths, for sizing experiments.
+     *
+     * @param faker             source of random values
+     * @param titleLength       characters in the title, at least 1
+     * @param descriptionLength characters in the description
+     * @return JSONObject representing a fake project.
+     */
+    public static JSONObject createRandomProject(Faker faker, int titleLength, int descriptionLength) {
+        return createRandomProject(faker)
+                .put("title", loremOfLength(faker, titleLength))
+                .put("description", loremOfLength(faker, descriptionLength));
+    }
+
+    /**
+     * Creates a random category object whose title and description have
+     * exactly the given lengths.
+     *
+     * @param faker             source of random values
+     * @param titleLength       characters in the title, at least 1
+     * @param descriptionLength characters in the description
+     * @return JSONObject representing a fake category.
+     */
+    public static JSONObject createRandomCategory(Faker faker, int titleLength, int descriptionLength) {
+        return new JSONObject()
+                .put("title", loremOfLength(faker, titleLength))
+                .put("description", loremOfLength(faker, descriptionLength));
+    }
+
+    /**
+     * Lorem ipsum text cut to exactly {@code length} characters.
+     */
+    private static String loremOfLength(Faker faker, int length) {
+        StringBuilder text = new StringBuilder(length + 200);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(faker.lorem().paragraph());
+        }
+        return text.substring(0, length);
+    }
 }
@@ -0,0 +1,307 @@
+package unitTest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the duration-vs-numObjects curve of every operation in the
+ * latest perf run with an earlier run from the result history. Rows with
+ * different {@code serverJvmFlags} form separate curves, so a
+ * {@code jvmMatrix} run is compared configuration by configuration.
+ * <p>
+ * Each curve gets two fits: a straight line (slope = ms per object) and a
+ * power law {@code duration = c * n^k} (fit on log-log axes, ignoring the
+ * smallest sizes where fixed overhead dominates), whose exponent
+ * tells linear ({@code k ≈ 1}) from superlinear growth. An operation
+ * regresses when its slope grows by more than the threshold and the
+ * difference of the two slopes is significant under a t-test, or when its
+ * exponent significantly increases into superlinear territory.
+ * <p>
+ * Usage: {@code ./gradlew perfCompare [-Pperf.compare.threshold=10]
+ * [-Pperf.compare.baseline=<runId>] [-Pperf.compare.candidate=<runId>]}.
+ * Exits with status 1 if any operation regressed.
+ */
+public class RegressionComparator {
+
+    /** Power-law exponent above which growth is reported as superlinear. */
+    static final double SUPERLINEAR_EXPONENT = 1.15;
+    /** Sizes below this fraction of the largest one are left out of the power-law fit. */
+    static final double POWER_LAW_MIN_FRACTION = 0.1;
+
+    private final ResultHistory history;
+    private final double thresholdPercent;
+
+    public RegressionComparator(ResultHistory history, double thresholdPercent) {
+        this.history = history;
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "build/perf-results");
+        double threshold = Double.parseDouble(System.getProperty("perf.compare.threshold", "10"));
+
+        ResultHistory history = ResultHistory.load(directory);
+        if (history.getRuns().size() < 2) {
+            System.out.println("perfCompare: need at least two runs in " + directory
+                    + ", found " + history.getRuns().size() + "; nothing to compare");
+            return;
+        }
+
+        RegressionComparator comparator = new RegressionComparator(history, threshold);
+        List<Comparison> comparisons = comparator.compare(
+                System.getProperty("perf.compare.baseline"),
+                System.getProperty("perf.compare.candidate"));
+
+        System.out.println(formatTable(comparisons));
+        long regressions = comparisons.stream().filter(Comparison::isRegression).count();
+        if (regressions > 0) {
+            System.err.println("perfCompare: " + regressions + " operation(s) regressed");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param baselineRun  run to compare against; if null, each operation is
+     *                     compared with the most recent earlier run that measured it
+     * @param candidateRun run under test; if null, the latest run
+     */
+    public List<Comparison> compare(String baselineRun, String candidateRun) {
+        List<String> runs = history.getRuns();
+        String candidate = candidateRun != null ? candidateRun : runs.get(runs.size() - 1);
+        int candidateIndex = runs.indexOf(candidate);
+        if (candidateIndex < 0) {
+            throw new IllegalArgumentException("Unknown run: " + candidate);
+        }
+        if (baselineRun != null && !runs.contains(baselineRun)) {
+            throw new IllegalArgumentException("Unknown baseline run: " + baselineRun);
+        }
+
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, Curve> entry : curves(candidate).entrySet()) {
+            Curve baseline = null;
+            String baselineId = baselineRun;
+            if (baselineRun != null) {
+                baseline = curves(baselineRun).get(entry.getKey());
+            } else {
+                for (int i = candidateIndex - 1; i >= 0 && baseline == null; i--) {
+                    baseline = curves(runs.get(i)).get(entry.getKey());
+                    baselineId = runs.get(i);
+                }
+            }
+            if (baseline != null) {
+                comparisons.add(new Comparison(entry.getKey(), baselineId, candidate,
+                        baseline, entry.getValue(), thresholdPercent));
+            }
+        }
+        return comparisons;
+    }
+
+    /** Curves with enough points to fit, keyed by "suite/operation [serverJvmFlags]". */
+    private Map<String, Curve> curves(String runId) {
+        Map<String, List<double[]>> points = new TreeMap<>();
+        for (Map<String, String> row : history.getRows(runId)) {
+            String n = row.getOrDefault("numObjects", "");
+            String duration = row.getOrDefault("durationMs", "");
+            if (n.isEmpty() || duration.isEmpty()) {
+                continue; // load rows have no size axis
+            }
+            // one run can measure the same operation under several server JVMs (jvmMatrix)
+            String flags = row.getOrDefault("serverJvmFlags", "");
+            String key = row.getOrDefault("suite", "") + "/" + row.getOrDefault("operation", "")
+                    + (flags.isEmpty() ? "" : " [" + flags + "]");
+            points.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(new double[]{Double.parseDouble(n), Double.parseDouble(duration)});
+        }
+
+        Map<String, Curve> curves = new TreeMap<>();
+        for (Map.Entry<String, List<double[]>> entry : points.entrySet()) {
+            Curve curve = Curve.fit(entry.getValue());
+            if (curve != null) {
+                curves.put(entry.getKey(), curve);
+            }
+        }
+        return curves;
+    }
+
+    static String formatTable(List<Comparison> comparisons) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%-60s %12s %12s %9s %7s %13s %s%n",
+                "operation", "base ms/obj", "cand ms/obj", "change", "t", "exponent", "verdict"));
+        for (Comparison c : comparisons) {
+            out.append(String.format(Locale.ROOT, "%-60s %12.4f %12.4f %8.1f%% %7.2f %5.2f -> %-5.2f %s%n",
+                    c.getOperation(),
+                    c.getBaseline().getLinear().getSlope(),
+                    c.getCandidate().getLinear().getSlope(),
+                    c.getSlopeChangePercent(),
+                    c.getSlopeT(),
+                    c.getBaseline().getExponent(),
+                    c.getCandidate().getExponent(),
+                    c.getVerdict()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Linear and power-law fits of one duration-vs-numObjects curve.
+     */
+    public static final class Curve {
+        private final Statistics.LinearFit linear;
+        private final Statistics.LinearFit logLog;
+
+        private Curve(Statistics.LinearFit linear, Statistics.LinearFit logLog) {
+            this.linear = linear;
+            this.logLog = logLog;
+        }
+
+        /** @return the fits, or null with fewer than three distinct sizes */
+        static Curve fit(List<double[]> points) {
+            double[] x = new double[points.size()];
+            double[] y = new double[points.size()];
+            double maxSize = points.stream().mapToDouble(p -> p[0]).max().orElse(0);
+            List<double[]> positive = new ArrayList<>();
+            for (int i = 0; i < points.size(); i++) {
+                x[i] = points.get(i)[0];
+                y[i] = points.get(i)[1];
+                // fixed per-step overhead swamps the smallest sizes on log-log axes
+                if (x[i] >= POWER_LAW_MIN_FRACTION * maxSize && y[i] > 0) {
+                    positive.add(new double[]{Math.log(x[i]), Math.log(y[i])});
+                }
+            }
+            if (positive.size() < 3 || points.stream().mapToDouble(p -> p[0]).distinct().count() < 3) {
+                return null;
+            }
+            double[] lx = new double[positive.size()];
+            double[] ly = new double[positive.size()];
+            for (int i = 0; i < lx.length; i++) {
+                lx[i] = positive.get(i)[0];
+                ly[i] = positive.get(i)[1];
+            }
+            return new Curve(Statistics.linearFit(x, y), Statistics.linearFit(lx, ly));
+        }
+
+        public Statistics.LinearFit getLinear() {
+            return linear;
+        }
+
+        /** Fit of log(duration) against log(numObjects). */
+        public Statistics.LinearFit getLogLog() {
+            return logLog;
+        }
+
+        /** Power-law exponent k in duration = c * n^k. */
+        public double getExponent() {
+            return logLog.getSlope();
+        }
+
+        public boolean isSuperlinear() {
+            return getExponent() > SUPERLINEAR_EXPONENT;
+        }
+    }
+
+    /**
+     * One operation compared across two runs.
+     */
+    public static final class Comparison {
+        private final String operation;
+        private final String baselineRun;
+        private final String candidateRun;
+        private final Curve baseline;
+        private final Curve candidate;
+        private final double slopeChangePercent;
+        private final double slopeT;
+        private final boolean slopeSignificant;
+        private final boolean exponentSignificant;
+        private final boolean slopeRegression;
+        private final boolean becameSuperlinear;
+
+        Comparison(String operation, String baselineRun, String candidateRun,
+                   Curve baseline, Curve candidate, double thresholdPercent) {
+            this.operation = operation;
+            this.baselineRun = baselineRun;
+            this.candidateRun = candidateRun;
+            this.baseline = baseline;
+            this.candidate = candidate;
+
+            double baseSlope = baseline.getLinear().getSlope();
+            double candSlope = candidate.getLinear().getSlope();
+            this.slopeChangePercent = baseSlope == 0 ? 0.0 : (candSlope - baseSlope) / Math.abs(baseSlope) * 100.0;
+
+            this.slopeT = tStatistic(baseline.getLinear(), candidate.getLinear());
+            this.slopeSignificant = Math.abs(slopeT) > Statistics.tCritical95(degreesOfFreedom(baseline.getLinear(), candidate.getLinear()));
+            double exponentT = tStatistic(baseline.getLogLog(), candidate.getLogLog());
+            this.exponentSignificant = exponentT > Statistics.tCritical95(degreesOfFreedom(baseline.getLogLog(), candidate.getLogLog()));
+
+            this.slopeRegression = slopeChangePercent > thresholdPercent && slopeSignificant && slopeT > 0;
+            this.becameSuperlinear = candidate.isSuperlinear() && exponentSignificant;
+        }
+
+        // Welch-style t statistic for the difference of two independent slopes
+        private static double tStatistic(Statistics.LinearFit before, Statistics.LinearFit after) {
+            double stdErr = Math.sqrt(before.getSlopeStdErr() * before.getSlopeStdErr()
+                    + after.getSlopeStdErr() * after.getSlopeStdErr());
+            double diff = after.getSlope() - before.getSlope();
+            if (stdErr == 0) {
+                return diff == 0 ? 0.0 : Math.copySign(Double.POSITIVE_INFINITY, diff);
+            }
+            return diff / stdErr;
+        }
+
+        private static int degreesOfFreedom(Statistics.LinearFit before, Statistics.LinearFit after) {
+            return before.getPoints() + after.getPoints() - 4;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getBaselineRun() {
+            return baselineRun;
+        }
+
+        public String getCandidateRun() {
+            return candidateRun;
+        }
+
+        public Curve getBaseline() {
+            return baseline;
+        }
+
+        public Curve getCandidate() {
+            return candidate;
+        }
+
+        public double getSlopeChangePercent() {
+            return slopeChangePercent;
+        }
+
+        public double getSlopeT() {
+            return slopeT;
+        }
+
+        public boolean isSlopeSignificant() {
+            return slopeSignificant;
+        }
+
+        public boolean isRegression() {
+            return slopeRegression || becameSuperlinear;
+        }
+
+        public String getVerdict() {
+            if (slopeRegression && becameSuperlinear) {
+                return "REGRESSION (slope, superlinear)";
+            } else if (slopeRegression) {
+                return "REGRESSION (slope)";
+            } else if (becameSuperlinear) {
+                return "REGRESSION (superlinear)";
+            } else if (slopeSignificant && slopeT < 0) {
+                return "improved";
+            }
+            return "ok";
+        }
+    }
+}
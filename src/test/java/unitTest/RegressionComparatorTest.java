@@ -0,0 +1,161 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Slope and power-law verdicts of {@link RegressionComparator} on fixture runs.
+ */
+public class RegressionComparatorTest {
+
+    private static final double[] SIZES = {10, 100, 200, 500, 1000, 2000};
+
+    @TempDir
+    Path directory;
+
+    private final List<String> rows = new ArrayList<>();
+
+    @Test
+    public void shouldPassUnchangedCurve() throws IOException {
+        run("base", "2026-01-01", n -> 0.01 * n + 5);
+        run("cand", "2026-01-02", n -> 0.01 * n + 5);
+
+        RegressionComparator.Comparison c = compareOnly(null, null);
+
+        assertFalse(c.isRegression());
+        assertEquals("ok", c.getVerdict());
+        assertEquals("base", c.getBaselineRun());
+    }
+
+    @Test
+    public void shouldFlagSignificantlySteeperSlope() throws IOException {
+        run("base", "2026-01-01", n -> 0.01 * n + 5 + noise(n));
+        run("cand", "2026-01-02", n -> 0.02 * n + 5 + noise(n));
+
+        RegressionComparator.Comparison c = compareOnly(null, null);
+
+        assertTrue(c.isRegression());
+        assertEquals("REGRESSION (slope)", c.getVerdict());
+        assertEquals(100.0, c.getSlopeChangePercent(), 5.0);
+    }
+
+    @Test
+    public void shouldNotFlagSlopeChangeBelowThreshold() throws IOException {
+        run("base", "2026-01-01", n -> 0.01 * n + 5);
+        run("cand", "2026-01-02", n -> 0.0105 * n + 5);
+
+        assertFalse(compareOnly(null, null).isRegression());
+    }
+
+    @Test
+    public void shouldFlagGrowthTurningSuperlinear() throws IOException {
+        run("base", "2026-01-01", n -> 0.01 * n);
+        run("cand", "2026-01-02", n -> 0.0002 * Math.pow(n, 1.5));
+
+        RegressionComparator.Comparison c = compareOnly(null, null);
+
+        assertTrue(c.getCandidate().isSuperlinear());
+        assertTrue(c.getVerdict().contains("superlinear"), c.getVerdict());
+    }
+
+    @Test
+    public void shouldReportImprovement() throws IOException {
+        run("base", "2026-01-01", n -> 0.02 * n + 5 + noise(n));
+        run("cand", "2026-01-02", n -> 0.01 * n + 5 + noise(n));
+
+        assertEquals("improved", compareOnly(null, null).getVerdict());
+    }
+
+    @Test
+    public void shouldCompareWithNamedBaselineRun() throws IOException {
+        run("first", "2026-01-01", n -> 0.01 * n);
+        run("second", "2026-01-02", n -> 0.05 * n);
+        run("third", "2026-01-03", n -> 0.01 * n);
+
+        assertFalse(compareOnly("first", "third").isRegression());
+        assertTrue(compareOnly("first", "second").isRegression());
+    }
+
+    @Test
+    public void shouldRejectUnknownRuns() throws IOException {
+        run("base", "2026-01-01", n -> n);
+        run("cand", "2026-01-02", n -> n);
+        RegressionComparator comparator = comparator();
+
+        assertThrows(IllegalArgumentException.class, () -> comparator.compare("typo", null));
+        assertThrows(IllegalArgumentException.class, () -> comparator.compare(null, "typo"));
+    }
+
+    @Test
+    public void shouldKeepServerJvmConfigurationsOnSeparateCurves() throws IOException {
+        // a matrix run: two server configurations under one run ID
+        for (double n : SIZES) {
+            rows.add(row("base", "2026-01-01", n, 0.01 * n, "-XX:+UseG1GC"));
+            rows.add(row("matrix", "2026-01-02", n, 0.01 * n, "-XX:+UseG1GC"));
+            rows.add(row("matrix", "2026-01-02", n, 0.05 * n, "-XX:+UseSerialGC"));
+        }
+
+        List<RegressionComparator.Comparison> comparisons = comparator().compare(null, null);
+
+        // the Serial GC curve has no earlier run to compare with, and is not mixed into G1's
+        assertEquals(1, comparisons.size());
+        assertEquals("todo/createMultipleTodos [-XX:+UseG1GC]", comparisons.get(0).getOperation());
+        assertFalse(comparisons.get(0).isRegression());
+    }
+
+    @Test
+    public void shouldSkipCurvesWithTooFewSizes() throws IOException {
+        rows.add(row("base", "2026-01-01", 10, 1));
+        rows.add(row("base", "2026-01-01", 100, 2));
+        rows.add(row("cand", "2026-01-02", 10, 1));
+        rows.add(row("cand", "2026-01-02", 100, 9));
+
+        assertTrue(comparator().compare(null, null).isEmpty());
+    }
+
+    // ---------- fixtures ----------
+
+    private void run(String runId, String day, DoubleUnaryOperator durationMs) {
+        for (double n : SIZES) {
+            rows.add(row(runId, day, n, durationMs.applyAsDouble(n)));
+        }
+    }
+
+    /** Small deterministic scatter, so slopes have a nonzero standard error. */
+    private static double noise(double n) {
+        return ((int) n % 3 - 1) * 0.05;
+    }
+
+    private static String row(String runId, String day, double n, double durationMs) {
+        return row(runId, day, n, durationMs, "");
+    }
+
+    private static String row(String runId, String day, double n, double durationMs, String serverJvmFlags) {
+        return runId + "," + day + "T00:00:00Z,todo,createMultipleTodos," + (long) n + "," + durationMs
+                + "," + serverJvmFlags;
+    }
+
+    private RegressionComparator comparator() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("runId,timestamp,suite,operation,numObjects,durationMs,serverJvmFlags");
+        lines.addAll(rows);
+        Files.write(directory.resolve("todo-results.v7.csv"), lines, StandardCharsets.UTF_8);
+        return new RegressionComparator(ResultHistory.load(directory), 10);
+    }
+
+    private RegressionComparator.Comparison compareOnly(String baseline, String candidate) throws IOException {
+        List<RegressionComparator.Comparison> comparisons = comparator().compare(baseline, candidate);
+        assertEquals(1, comparisons.size());
+        return comparisons.get(0);
+    }
+}
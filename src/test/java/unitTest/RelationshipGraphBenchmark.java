@@ -0,0 +1,248 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Latency of the relationship endpoints against fan-out. For each fan-out a
+ * project with that many tasks is built, its todos sharing a small set of
+ * categories ({@link GraphWorkload}), and the benchmark times:
+ * <ul>
+ *   <li>traversal: {@code GET /projects/{id}/tasks}, and the two-hop walk on
+ *       to every task's {@code /categories};</li>
+ *   <li>link/unlink: adding and removing tasks on a project that already has
+ *       {@code fanOut} of them;</li>
+ *   <li>cascade delete: deleting the project, which has to drop the
+ *       {@code tasksof} link of every task, and deleting a category shared
+ *       by every task.</li>
+ * </ul>
+ * Rows use the fan-out as {@code numObjects}, so each operation's curve can
+ * be fitted like any other step. Tagged {@code benchmark}; fan-outs come from
+ * {@code perf.graph.fanouts}.
+ */
+@Tag("benchmark")
+public class RelationshipGraphBenchmark {
+
+    private static final int BUILD_WORKERS = 32;
+    private static final int SHARED_CATEGORIES = 20;
+    private static final int CATEGORIES_PER_TODO = 2;
+    private static final int LINK_BATCH = 100;
+    // todos checked for leftover links after a cascade delete
+    private static final int CASCADE_SAMPLE = 20;
+
+    private static BenchmarkFixture fixture;
+    private static GraphWorkload graphs;
+    private static String[] sharedCategories;
+
+    @BeforeAll
+    public static void bootApi() throws Exception {
+        fixture = BenchmarkFixture.start("relationshipGraph");
+        graphs = new GraphWorkload(fixture.getTransport(), BUILD_WORKERS);
+        sharedCategories = graphs.createCategories(SHARED_CATEGORIES);
+    }
+
+    @AfterAll
+    public static void tearDownApi() {
+        if (fixture != null) {
+            fixture.close();
+        }
+    }
+
+    @Test
+    public void shouldMeasureRelationshipCostsAgainstFanOut() throws Exception {
+        int[] fanOuts = Arrays.stream(System.getProperty("perf.graph.fanouts", "1,10,100,1000,10000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .sorted()
+                .toArray();
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
+
+        for (int fanOut : fanOuts) {
+            // ---- graph shared by the traversal and link/unlink steps ----
+            long buildStart = System.currentTimeMillis();
+            GraphWorkload.Graph graph = graphs.build(fanOut, sharedCategories, CATEGORIES_PER_TODO);
+            long buildEnd = System.currentTimeMillis();
+            long buildMs = Math.max(1, buildEnd - buildStart);
+            int buildRequests = 1 + fanOut * (1 + CATEGORIES_PER_TODO);
+            fixture.record(new ResultRecord("buildGraph")
+                    .set("numObjects", fanOut)
+                    .set("workers", BUILD_WORKERS)
+                    .set("requests", buildRequests)
+                    .set("durationMs", buildMs)
+                    .set("throughput", buildRequests / (buildMs / 1000.0))
+                    .server(fixture.interval(buildStart, buildEnd)));
+
+            try {
+                measureTraversal(runner, graph);
+                measureLinkUnlink(runner, graph);
+            } finally {
+                // project first, so the todo deletes no longer touch its task list
+                fixture.getTransport().send("DELETE", "/projects/" + graph.getProjectId(), null);
+                graphs.deleteAll("todos", graph.getTodoIds());
+            }
+
+            measureProjectCascade(runner, fanOut);
+            measureCategoryCascade(runner, fanOut);
+        }
+    }
+
+    // ---------- traversal ----------
+
+    private void measureTraversal(BenchmarkRunner runner, GraphWorkload.Graph graph) throws Exception {
+        HttpTransport transport = fixture.getTransport();
+        String tasksPath = "/projects/" + graph.getProjectId() + "/tasks";
+        int fanOut = graph.getFanOut();
+
+        // one hop: the project's tasks
+        ConnectionStats connectionsBefore = transport.getStats();
+        record("traverseProjectTasks", connectionsBefore, runner.run(fanOut, (n, latencies) -> {
+            long requestStart = System.nanoTime();
+            TransportResponse response = transport.send("GET", tasksPath, null);
+            latencies.recordValue(System.nanoTime() - requestStart);
+            assertEquals(200, response.getStatusCode());
+            assertEquals(fanOut, StreamingExtractor.count(response.getBody(), "todos"));
+        }), null);
+
+        // two hops: the tasks, then every task's categories (one request per task)
+        connectionsBefore = transport.getStats();
+        record("traverseTasksToCategories", connectionsBefore, runner.run(fanOut, (n, latencies) -> {
+            long requestStart = System.nanoTime();
+            TransportResponse tasks = transport.send("GET", tasksPath, null);
+            latencies.recordValue(System.nanoTime() - requestStart);
+            assertEquals(200, tasks.getStatusCode());
+
+            for (String todoId : StreamingExtractor.project(tasks.getBody(), "todos", "id")) {
+                requestStart = System.nanoTime();
+                TransportResponse categories = transport.send("GET", "/todos/" + todoId + "/categories", null);
+                latencies.recordValue(System.nanoTime() - requestStart);
+                assertEquals(CATEGORIES_PER_TODO, StreamingExtractor.count(categories.getBody(), "categories"));
+            }
+        }), null);
+    }
+
+    // ---------- link / unlink ----------
+
+    private void measureLinkUnlink(BenchmarkRunner runner, GraphWorkload.Graph graph) throws Exception {
+        HttpTransport transport = fixture.getTransport();
+        String tasksPath = "/projects/" + graph.getProjectId() + "/tasks";
+
+        // LINK_BATCH links and unlinks on a project that already has fanOut tasks
+        ConnectionStats connectionsBefore = transport.getStats();
+        BenchmarkRunner.Result result = runner.run(graph.getFanOut(),
+                n -> graphs.createTodos(LINK_BATCH),
+                (todoIds, n, latencies) -> {
+                    for (String todoId : todoIds) {
+                        long requestStart = System.nanoTime();
+                        TransportResponse link = transport.send("POST", tasksPath, idBody(todoId));
+                        latencies.recordValue(System.nanoTime() - requestStart);
+                        assertEquals(201, link.getStatusCode());
+                    }
+                    for (String todoId : todoIds) {
+                        long requestStart = System.nanoTime();
+                        TransportResponse unlink = transport.send("DELETE", tasksPath + "/" + todoId, null);
+                        latencies.recordValue(System.nanoTime() - requestStart);
+                        assertEquals(200, unlink.getStatusCode());
+                    }
+                },
+                todoIds -> graphs.deleteAll("todos", todoIds));
+        record("linkUnlinkTask", connectionsBefore, result, 2.0 * LINK_BATCH);
+    }
+
+    // ---------- cascade delete ----------
+
+    private void measureProjectCascade(BenchmarkRunner runner, int fanOut) throws Exception {
+        HttpTransport transport = fixture.getTransport();
+        String[] noCategories = new String[0];
+        ConnectionStats connectionsBefore = transport.getStats();
+        BenchmarkRunner.Result result = runner.run(fanOut,
+                n -> graphs.build(n, noCategories, 0),
+                (graph, n, latencies) -> {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("DELETE", "/projects/" + graph.getProjectId(), null);
+                    latencies.recordValue(System.nanoTime() - requestStart);
+                    assertEquals(200, response.getStatusCode());
+                },
+                graph -> {
+                    // the tasks survive, but none may still point at the deleted project
+                    String[] todoIds = graph.getTodoIds();
+                    for (int i = 0; i < Math.min(CASCADE_SAMPLE, todoIds.length); i++) {
+                        TransportResponse todo = transport.send("GET", "/todos/" + todoIds[i] + "/tasksof", null);
+                        assertEquals(0, StreamingExtractor.count(todo.getBody(), "projects"),
+                                "todo " + todoIds[i] + " still lists deleted project " + graph.getProjectId());
+                    }
+                    graphs.deleteAll("todos", todoIds);
+                });
+        record("cascadeDeleteProject", connectionsBefore, result, null);
+    }
+
+    private void measureCategoryCascade(BenchmarkRunner runner, int fanOut) throws Exception {
+        HttpTransport transport = fixture.getTransport();
+        int[] dangling = new int[2]; // {still linked, sampled}
+        ConnectionStats connectionsBefore = transport.getStats();
+        BenchmarkRunner.Result result = runner.run(fanOut,
+                n -> {
+                    // a category used by every todo of a fresh graph
+                    String[] category = graphs.createCategories(1);
+                    return graphs.build(n, category, 1);
+                },
+                (graph, n, latencies) -> {
+                    String categoryId = categoryOf(graph);
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("DELETE", "/categories/" + categoryId, null);
+                    latencies.recordValue(System.nanoTime() - requestStart);
+                    assertEquals(200, response.getStatusCode());
+                },
+                graph -> {
+                    // the server keeps todo-to-category links of deleted categories; count them, don't fail
+                    String[] todoIds = graph.getTodoIds();
+                    for (int i = 0; i < Math.min(CASCADE_SAMPLE, todoIds.length); i++) {
+                        dangling[1]++;
+                        String categories = String.valueOf(StreamingExtractor.project(
+                                transport.send("GET", "/todos/" + todoIds[i], null).getBody(), "todos", "categories")
+                                .get(0));
+                        if (!"null".equals(categories) && !categories.isEmpty()) {
+                            dangling[0]++;
+                        }
+                    }
+                    transport.send("DELETE", "/projects/" + graph.getProjectId(), null);
+                    graphs.deleteAll("todos", todoIds);
+                });
+        record("cascadeDeleteCategory", connectionsBefore, result, null);
+        if (dangling[0] > 0) {
+            System.out.println("cascadeDeleteCategory at fan-out " + fanOut + ": " + dangling[0] + " of "
+                    + dangling[1] + " sampled todos still link to their deleted category");
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private String categoryOf(GraphWorkload.Graph graph) throws Exception {
+        TransportResponse todo = fixture.getTransport().send("GET", "/todos/" + graph.getTodoIds()[0], null);
+        return StreamingExtractor.project(todo.getBody(), "todos", "categories").get(0);
+    }
+
+    /**
+     * Connection counts include the untimed preparation and cleanup of the step.
+     *
+     * @param requestsPerStep overrides the throughput with requests per second
+     *                        when a step does a fixed amount of work at any fan-out
+     */
+    private void record(String operation, ConnectionStats connectionsBefore, BenchmarkRunner.Result result,
+                        Double requestsPerStep) throws IOException {
+        BackgroundSampler.Interval server = fixture.interval(result.getStartMillis(), result.getEndMillis());
+        ResultRecord record = ResultRecord.forStep(operation, result, server,
+                fixture.getTransport().getStats().since(connectionsBefore));
+        if (requestsPerStep != null) {
+            record.set("throughput", requestsPerStep / (result.getMeanDurationMs() / 1000.0));
+        }
+        fixture.record(record);
+    }
+
+    private static byte[] idBody(String id) {
+        return ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
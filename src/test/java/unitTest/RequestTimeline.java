@@ -0,0 +1,60 @@
+package unitTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Start time and latency of every request of a run, in wall-clock terms, so
+ * individual slow requests can be lined up with events on the server such
+ * as GC pauses. Storage is allocated up front and {@link #record} only
+ * writes two array slots, so it can sit inside a timed loop on any number
+ * of threads. Requests beyond the capacity are counted but not kept.
+ */
+public class RequestTimeline {
+
+    private final long baseEpochNanos;
+    private final long baseNanoTime;
+    private final long[] startNanos;
+    private final long[] latencyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param capacity number of requests to keep
+     */
+    public RequestTimeline(int capacity) {
+        this.baseNanoTime = System.nanoTime();
+        this.baseEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.startNanos = new long[capacity];
+        this.latencyNanos = new long[capacity];
+    }
+
+    /**
+     * @param startNanoTime {@link System#nanoTime()} when the request was sent
+     * @param endNanoTime   {@link System#nanoTime()} when its response arrived
+     */
+    public void record(long startNanoTime, long endNanoTime) {
+        int i = next.getAndIncrement();
+        if (i < startNanos.length) {
+            startNanos[i] = startNanoTime;
+            latencyNanos[i] = endNanoTime - startNanoTime;
+        }
+    }
+
+    /** Requests kept; call once the run is over. */
+    public int size() {
+        return Math.min(next.get(), startNanos.length);
+    }
+
+    /** Requests recorded, including those past the capacity. */
+    public int getRecorded() {
+        return next.get();
+    }
+
+    /** Wall-clock send time of request {@code i}, in epoch milliseconds. */
+    public double getStartMillis(int i) {
+        return (baseEpochNanos + (startNanos[i] - baseNanoTime)) / 1e6;
+    }
+
+    public double getLatencyMs(int i) {
+        return latencyNanos[i] / 1e6;
+    }
+}
@@ -0,0 +1,50 @@
+package unitTest;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * RestAssured's default client, exactly as the functional tests use it.
+ * Kept as the baseline the pooled transports are compared against; it does
+ * not expose connection counts.
+ */
+public class RestAssuredTransport implements HttpTransport {
+
+    private final String baseUri;
+    private final AtomicLong requests = new AtomicLong();
+
+    public RestAssuredTransport(String baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    @Override
+    public TransportResponse send(String method, String path, byte[] body) {
+        RequestSpecification request = given().baseUri(baseUri);
+        if (body != null) {
+            request.contentType(ContentType.JSON).body(body);
+        }
+
+        requests.incrementAndGet();
+        Response response = request.when().request(method, path);
+        return new TransportResponse(response.getStatusCode(), response.asByteArray());
+    }
+
+    @Override
+    public ConnectionStats getStats() {
+        return new ConnectionStats(requests.get(), -1);
+    }
+
+    @Override
+    public String getName() {
+        return "restassured";
+    }
+
+    @Override
+    public void close() {
+    }
+}
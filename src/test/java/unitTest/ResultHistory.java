@@ -0,0 +1,134 @@
+package unitTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONObject;
+
+/**
+ * Reads back every row {@link ResultSink} has appended to a results
+ * directory (CSV and JSON Lines files of every schema version), grouped by
+ * run. Fields are read by column name: schema versions only ever add
+ * columns, so rows from older files simply lack the newer ones.
+ */
+public class ResultHistory {
+
+    private final Map<String, List<Map<String, String>>> rowsByRun;
+    private final List<String> runsInOrder;
+
+    private ResultHistory(Map<String, List<Map<String, String>>> rowsByRun, List<String> runsInOrder) {
+        this.rowsByRun = rowsByRun;
+        this.runsInOrder = runsInOrder;
+    }
+
+    public static ResultHistory load(Path directory) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*-results.v*.*")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".csv")) {
+                        readCsv(file, rows);
+                    } else if (name.endsWith(".jsonl")) {
+                        readJsonLines(file, rows);
+                    }
+                }
+            }
+        }
+
+        Map<String, List<Map<String, String>>> byRun = new LinkedHashMap<>();
+        Map<String, String> firstTimestamp = new TreeMap<>();
+        for (Map<String, String> row : rows) {
+            String runId = row.getOrDefault("runId", "");
+            byRun.computeIfAbsent(runId, k -> new ArrayList<>()).add(row);
+            String ts = row.getOrDefault("timestamp", "");
+            firstTimestamp.merge(runId, ts, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        List<String> order = new ArrayList<>(byRun.keySet());
+        // ISO-8601 timestamps sort chronologically as strings
+        order.sort(Comparator.comparing(firstTimestamp::get));
+        return new ResultHistory(byRun, order);
+    }
+
+    /** Run IDs, oldest first. */
+    public List<String> getRuns() {
+        return Collections.unmodifiableList(runsInOrder);
+    }
+
+    public List<Map<String, String>> getRows(String runId) {
+        return rowsByRun.getOrDefault(runId, Collections.emptyList());
+    }
+
+    // ---------------- PARSING ----------------
+
+    private static void readCsv(Path file, List<Map<String, String>> rows) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<String> header = splitCsvLine(lines.get(0));
+        for (int i = 1; i < lines.size(); i++) {
+            if (lines.get(i).isEmpty()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(lines.get(i));
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int c = 0; c < header.size() && c < fields.size(); c++) {
+                row.put(header.get(c), fields.get(c));
+            }
+            rows.add(row);
+        }
+    }
+
+    private static void readJsonLines(Path file, List<Map<String, String>> rows) throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            JSONObject json = new JSONObject(line);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (String key : json.keySet()) {
+                row.put(key, json.isNull(key) ? "" : String.valueOf(json.get(key)));
+            }
+            rows.add(row);
+        }
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
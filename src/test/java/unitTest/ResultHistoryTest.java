@@ -0,0 +1,80 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reading result files back, across schema versions and formats.
+ */
+public class ResultHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldReadRunsFromEverySchemaVersionByColumnName() throws IOException {
+        write("todo-results.v4.csv",
+                "schemaVersion,runId,timestamp,suite,operation,numObjects,durationMs",
+                "4,old-run,2026-01-01T10:00:00Z,todo,createMultipleTodos,100,12.5");
+        // a newer file with an extra column, in a different position
+        write("todo-results.v7.csv",
+                "schemaVersion,runId,serverJvmFlags,timestamp,suite,operation,numObjects,durationMs",
+                "7,new-run,-Xmx1g,2026-02-01T10:00:00Z,todo,createMultipleTodos,100,11.0");
+
+        ResultHistory history = ResultHistory.load(directory);
+
+        assertEquals(Arrays.asList("old-run", "new-run"), history.getRuns());
+        Map<String, String> old = history.getRows("old-run").get(0);
+        assertEquals("12.5", old.get("durationMs"));
+        assertNull(old.get("serverJvmFlags"));
+        Map<String, String> current = history.getRows("new-run").get(0);
+        assertEquals("-Xmx1g", current.get("serverJvmFlags"));
+        assertEquals("11.0", current.get("durationMs"));
+    }
+
+    @Test
+    public void shouldReadJsonLinesAndOrderRunsByFirstTimestamp() throws IOException {
+        write("project-results.v7.jsonl",
+                "{\"runId\":\"later\",\"timestamp\":\"2026-03-02T00:00:00Z\",\"operation\":\"a\",\"numObjects\":10}",
+                "{\"runId\":\"earlier\",\"timestamp\":\"2026-03-01T00:00:00Z\",\"operation\":\"a\",\"profileFile\":null}");
+
+        ResultHistory history = ResultHistory.load(directory);
+
+        assertEquals(Arrays.asList("earlier", "later"), history.getRuns());
+        assertEquals("10", history.getRows("later").get(0).get("numObjects"));
+        assertEquals("", history.getRows("earlier").get(0).get("profileFile"));
+    }
+
+    @Test
+    public void shouldIgnoreFilesThatAreNotResults() throws IOException {
+        write("jvm-matrix-run.txt", "rank serverJvmFlags");
+        write("todo-results.v7.csv", "runId,timestamp,operation", "r,2026-01-01T00:00:00Z,x");
+
+        assertEquals(List.of("r"), ResultHistory.load(directory).getRuns());
+    }
+
+    @Test
+    public void shouldReturnNoRunsForMissingDirectory() throws IOException {
+        assertTrue(ResultHistory.load(directory.resolve("missing")).getRuns().isEmpty());
+    }
+
+    @Test
+    public void shouldSplitQuotedCsvFields() {
+        assertEquals(Arrays.asList("a", "b,c", "say \"hi\"", ""),
+                ResultHistory.splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Files.write(directory.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
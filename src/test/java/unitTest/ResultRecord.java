@@ -0,0 +1,172 @@
+package unitTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row of benchmark output with a fixed, versioned set of columns. Bump
+ * {@link #SCHEMA_VERSION} whenever {@link #COLUMNS} changes, so files written
+ * with an older layout are never appended to with a newer one.
+ * Columns that do not apply to a row (e.g. workers for a sequential step)
+ * are left empty.
+ */
+public final class ResultRecord {
+
+    public static final int SCHEMA_VERSION = 8;
+
+    public static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+            // run
+            "schemaVersion", "runId", "gitSha", "javaVersion", "jvmFlags", "serverJvmFlags",
+            "timestamp", "suite", "transport",
+            // workload
+            "operation", "numObjects", "workers", "targetRate",
+            "iterations", "warmupIterations", "steadyState",
+            // client-side results
+            "requests", "errors", "durationMs", "durationCi95Ms", "throughput",
+            "meanMs", "p50Ms", "p90Ms", "p99Ms", "p999Ms", "maxMs",
+            // from scheduled send time, for rate-driven runs
+            "correctedMeanMs", "correctedP50Ms", "correctedP90Ms", "correctedP99Ms", "correctedP999Ms",
+            "correctedMaxMs",
+            "responseBytes", "clientParseMs",
+            // server
+            "serverCpuPercent", "serverRssDeltaBytes", "serverPeakRssBytes", "serverGcCount", "serverGcTimeMs",
+            // server heap after a full GC, from a class histogram
+            "serverLiveHeapBytes", "serverLiveEntities", "serverLiveLinks",
+            // entity memory cost: shape of the entities added and their live heap each
+            "entityTextChars", "entityLinks", "bytesPerEntity",
+            // share of the p99 / p99.9 requests that overlapped a server GC pause
+            "p99GcOverlap", "p999GcOverlap",
+            // connections
+            "transportRequests", "connectionsOpened", "pipelinedRequests",
+            // server profile summary of the step, when profiling is on
+            "profileFile"
+    ));
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    public ResultRecord(String operation) {
+        set("operation", operation);
+    }
+
+    /**
+     * Row for one step measured with {@link BenchmarkRunner}.
+     */
+    public static ResultRecord forStep(
+            String operation,
+            BenchmarkRunner.Result result,
+            BackgroundSampler.Interval server,
+            ConnectionStats connections
+    ) {
+        return new ResultRecord(operation)
+                .set("numObjects", result.getNumObjects())
+                .set("iterations", result.getMeasuredIterations())
+                .set("warmupIterations", result.getWarmupIterations())
+                .set("steadyState", result.isSteadyState())
+                .set("durationMs", result.getMeanDurationMs())
+                .set("durationCi95Ms", result.getDurationCi95Ms())
+                .set("throughput", result.getThroughput())
+                .latencies(result.getLatencies())
+                .server(server)
+                .connections(connections);
+    }
+
+    /**
+     * Row for one run of {@link LoadGenerator}. A closed-loop run leaves
+     * {@code targetRate} and the corrected latencies empty: it had no
+     * schedule to fall behind.
+     */
+    public static ResultRecord forLoad(
+            String operation,
+            LoadGenerator.LoadResult result,
+            BackgroundSampler.Interval server,
+            ConnectionStats connections
+    ) {
+        return new ResultRecord(operation)
+                .set("workers", result.getWorkers())
+                .set("errors", result.getErrors())
+                .set("durationMs", result.getDurationMs())
+                .set("throughput", result.getThroughput())
+                .latencies(result.getLatencies())
+                .schedule(result)
+                .server(server)
+                .connections(connections);
+    }
+
+    /** Target rate and corrected latencies of an open-loop run; nothing for a closed-loop one. */
+    public ResultRecord schedule(LoadGenerator.LoadResult result) {
+        if (result.isClosedLoop()) {
+            return this;
+        }
+        return set("targetRate", result.getTargetRatePerSecond())
+                .correctedLatencies(result.getCorrectedLatencies());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the column is not part of the schema
+     */
+    public ResultRecord set(String column, Object value) {
+        if (!COLUMNS.contains(column)) {
+            throw new IllegalArgumentException("Unknown result column: " + column);
+        }
+        values.put(column, value);
+        return this;
+    }
+
+    /** Sets a column only if no value was set for it yet. */
+    ResultRecord setIfAbsent(String column, Object value) {
+        if (!values.containsKey(column)) {
+            set(column, value);
+        }
+        return this;
+    }
+
+    public Object get(String column) {
+        return values.get(column);
+    }
+
+    public ResultRecord latencies(LatencyHistogram latencies) {
+        return set("requests", latencies.getTotalCount())
+                .set("meanMs", latencies.getMean() / 1e6)
+                .set("p50Ms", latencies.getValueAtPercentileMs(50))
+                .set("p90Ms", latencies.getValueAtPercentileMs(90))
+                .set("p99Ms", latencies.getValueAtPercentileMs(99))
+                .set("p999Ms", latencies.getValueAtPercentileMs(99.9))
+                .set("maxMs", latencies.getMaxValue() / 1e6);
+    }
+
+    /**
+     * Latencies measured from each request's scheduled send time rather than
+     * its actual one, so a run that fell behind its schedule shows the delay.
+     */
+    public ResultRecord correctedLatencies(LatencyHistogram latencies) {
+        return set("correctedMeanMs", latencies.getMean() / 1e6)
+                .set("correctedP50Ms", latencies.getValueAtPercentileMs(50))
+                .set("correctedP90Ms", latencies.getValueAtPercentileMs(90))
+                .set("correctedP99Ms", latencies.getValueAtPercentileMs(99))
+                .set("correctedP999Ms", latencies.getValueAtPercentileMs(99.9))
+                .set("correctedMaxMs", latencies.getMaxValue() / 1e6);
+    }
+
+    public ResultRecord server(BackgroundSampler.Interval server) {
+        return set("serverCpuPercent", server.getCpuPercent())
+                .set("serverRssDeltaBytes", server.getRssDeltaBytes())
+                .set("serverPeakRssBytes", server.getPeakRssBytes())
+                .set("serverGcCount", server.getGcCount())
+                .set("serverGcTimeMs", server.getGcTimeMs());
+    }
+
+    public ResultRecord liveHeap(ClassHistogram histogram) {
+        return set("serverLiveHeapBytes", histogram.getTotalBytes())
+                .set("serverLiveEntities", histogram.getInstances(ClassHistogram.THING_INSTANCE))
+                .set("serverLiveLinks", histogram.getInstances(ClassHistogram.RELATIONSHIP_INSTANCE));
+    }
+
+    public ResultRecord connections(ConnectionStats connections) {
+        return set("transportRequests", connections.getRequests())
+                .set("connectionsOpened", connections.getConnectionsOpened())
+                .set("pipelinedRequests", connections.getPipelinedRequests());
+    }
+}
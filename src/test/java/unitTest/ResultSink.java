@@ -0,0 +1,203 @@
+package unitTest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+
+import org.json.JSONObject;
+
+/**
+ * Appends {@link ResultRecord}s to one results file per suite, keeping a
+ * single channel open for the whole run. Rows are buffered in memory and
+ * written under an exclusive file lock, so several test JVMs can append to
+ * the same file without interleaving partial lines; nothing touches the
+ * disk from inside a timed loop unless the buffer fills up.
+ * <p>
+ * Files live in {@code build/perf-results} (override with
+ * {@code -Dperf.results.dir}) and are named {@code <suite>-results.v<schema>.<csv|jsonl>};
+ * pick the format with {@code -Dperf.results.format=csv|jsonl}.
+ */
+public class ResultSink implements AutoCloseable {
+
+    /**
+     * Output format of a results file.
+     */
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public static Format fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final int FLUSH_THRESHOLD_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final Format format;
+    private final String suite;
+    private final String transport;
+    private final RunInfo run;
+    private final FileChannel channel;
+    private final StringBuilder buffer = new StringBuilder();
+    private String serverJvmFlags;
+
+    /**
+     * @param directory output directory, created if missing
+     * @param format    CSV or JSON Lines
+     * @param suite     test suite the rows belong to, e.g. "todo"
+     * @param transport name of the HTTP transport used for the rows
+     * @param run       run the rows belong to
+     */
+    public ResultSink(Path directory, Format format, String suite, String transport, RunInfo run) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(suite + "-results.v" + ResultRecord.SCHEMA_VERSION + "." + format.extension);
+        this.format = format;
+        this.suite = suite;
+        this.transport = transport;
+        this.run = run;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Sink for the current run, configured from {@code perf.results.*} system properties.
+     */
+    public static ResultSink open(String suite, String transport) throws IOException {
+        Path directory = Paths.get(System.getProperty("perf.results.dir", "build/perf-results"));
+        Format format = Format.fromName(System.getProperty("perf.results.format", "csv"));
+        return new ResultSink(directory, format, suite, transport, RunInfo.current());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Flags of the server the rows were measured against, stamped on every
+     * row that does not set its own.
+     */
+    public synchronized void setServerJvmFlags(String serverJvmFlags) {
+        this.serverJvmFlags = serverJvmFlags;
+    }
+
+    /**
+     * Stamps the run columns onto the record and buffers it.
+     */
+    public synchronized void record(ResultRecord record) throws IOException {
+        record.setIfAbsent("schemaVersion", ResultRecord.SCHEMA_VERSION)
+                .setIfAbsent("runId", run.getRunId())
+                .setIfAbsent("gitSha", run.getGitSha())
+                .setIfAbsent("javaVersion", run.getJavaVersion())
+                .setIfAbsent("jvmFlags", run.getJvmFlags())
+                .setIfAbsent("serverJvmFlags", serverJvmFlags)
+                .setIfAbsent("timestamp", Instant.now().toString())
+                .setIfAbsent("suite", suite)
+                .setIfAbsent("transport", transport);
+
+        if (format == Format.CSV) {
+            appendCsvLine(record);
+        } else {
+            appendJsonLine(record);
+        }
+        if (buffer.length() >= FLUSH_THRESHOLD_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes buffered rows to the file under an exclusive lock.
+     */
+    public synchronized void flush() throws IOException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        FileLock lock = channel.lock();
+        try {
+            if (format == Format.CSV && channel.size() == 0) {
+                buffer.insert(0, String.join(",", ResultRecord.COLUMNS) + "\n");
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } finally {
+            lock.release();
+        }
+        buffer.setLength(0);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ---------------- FORMATTING ----------------
+
+    private void appendCsvLine(ResultRecord record) {
+        boolean first = true;
+        for (String column : ResultRecord.COLUMNS) {
+            if (!first) {
+                buffer.append(',');
+            }
+            first = false;
+            Object value = record.get(column);
+            if (value != null) {
+                buffer.append(csvEscape(String.valueOf(value)));
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private void appendJsonLine(ResultRecord record) {
+        buffer.append('{');
+        boolean first = true;
+        for (String column : ResultRecord.COLUMNS) {
+            if (!first) {
+                buffer.append(',');
+            }
+            first = false;
+            buffer.append(JSONObject.quote(column)).append(':').append(jsonValue(record.get(column)));
+        }
+        buffer.append("}\n");
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            // NaN (e.g. a confidence interval from one iteration) is not valid JSON
+            return Double.isFinite(d) ? String.valueOf(d) : "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        return JSONObject.quote(String.valueOf(value));
+    }
+}
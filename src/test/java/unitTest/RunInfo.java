@@ -0,0 +1,91 @@
+package unitTest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Identifies one test run: every result record written during the run
+ * carries the same run ID, git commit and JVM flags, so rows from many runs
+ * can be appended to one file and still be told apart.
+ * Pass {@code -Dperf.runId=...} to share one ID across several test JVMs.
+ */
+public final class RunInfo {
+
+    private static RunInfo current;
+
+    private final String runId;
+    private final String gitSha;
+    private final String jvmFlags;
+    private final String javaVersion;
+
+    RunInfo(String runId, String gitSha, String jvmFlags, String javaVersion) {
+        this.runId = runId;
+        this.gitSha = gitSha;
+        this.jvmFlags = jvmFlags;
+        this.javaVersion = javaVersion;
+    }
+
+    /**
+     * The run this JVM belongs to, detected on first use.
+     */
+    public static synchronized RunInfo current() {
+        if (current == null) {
+            String runId = System.getProperty("perf.runId");
+            if (runId == null || runId.isEmpty()) {
+                runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                        + "-" + String.format(Locale.ROOT, "%04x", ThreadLocalRandom.current().nextInt(0x10000));
+            }
+            current = new RunInfo(runId, detectGitSha(), detectJvmFlags(), System.getProperty("java.version"));
+        }
+        return current;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    /** Commit the tests ran from, or "unknown" outside a git checkout. */
+    public String getGitSha() {
+        return gitSha;
+    }
+
+    /** -X / -XX options of the test JVM. */
+    public String getJvmFlags() {
+        return jvmFlags;
+    }
+
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    private static String detectGitSha() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            String sha;
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                sha = out.readLine();
+            }
+            if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 && sha != null) {
+                return sha.trim();
+            }
+        } catch (Exception ignored) {
+            // git not installed or not a checkout
+        }
+        return "unknown";
+    }
+
+    private static String detectJvmFlags() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-X"))
+                .collect(Collectors.joining(" "));
+    }
+}
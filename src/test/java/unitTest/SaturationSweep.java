@@ -0,0 +1,80 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offered rates for an open-loop {@link LoadGenerator} step, doubling from a
+ * starting rate until the server stops keeping up. A step breaks the server
+ * when any of these holds:
+ * <ul>
+ *   <li>a request failed;</li>
+ *   <li>throughput fell below 90% of the offered rate;</li>
+ *   <li>the p99 latency, corrected for coordinated omission, exceeded a limit.</li>
+ * </ul>
+ * The first rate that breaks is the saturation point for that number of
+ * workers. Limits come from {@code perf.saturation.*}.
+ */
+public class SaturationSweep {
+
+    private static final double MIN_THROUGHPUT_SHARE = 0.9;
+
+    private final double startRate;
+    private final double maxRate;
+    private final double p99LimitMs;
+    private final double stepSeconds;
+
+    public SaturationSweep(double startRate, double maxRate, double p99LimitMs, double stepSeconds) {
+        if (startRate <= 0 || maxRate < startRate) {
+            throw new IllegalArgumentException("rates must satisfy 0 < startRate <= maxRate");
+        }
+        this.startRate = startRate;
+        this.maxRate = maxRate;
+        this.p99LimitMs = p99LimitMs;
+        this.stepSeconds = stepSeconds;
+    }
+
+    /**
+     * @param startRate first offered rate, in requests per second
+     */
+    public static SaturationSweep fromSystemProperties(double startRate) {
+        return new SaturationSweep(startRate,
+                Double.parseDouble(System.getProperty("perf.saturation.maxRate", "12800")),
+                Double.parseDouble(System.getProperty("perf.saturation.p99Ms", "100")),
+                Double.parseDouble(System.getProperty("perf.saturation.stepSeconds", "1")));
+    }
+
+    /** Offered rates, doubling from the starting rate up to the maximum. */
+    public List<Double> getRates() {
+        List<Double> rates = new ArrayList<>();
+        for (double rate = startRate; rate <= maxRate; rate *= 2) {
+            rates.add(rate);
+        }
+        return rates;
+    }
+
+    /**
+     * @param minRequests fewest requests a step sends, whatever its rate
+     * @return requests for a step at {@code rate}, enough to last at least the step length
+     */
+    public int requestsAt(double rate, int minRequests) {
+        return (int) Math.max(minRequests, Math.ceil(rate * stepSeconds));
+    }
+
+    /**
+     * @return why the step broke the server, or null if the server kept up
+     */
+    public String breach(LoadGenerator.LoadResult result) {
+        if (result.getErrors() > 0) {
+            return result.getErrors() + " errors";
+        }
+        if (result.getThroughput() < MIN_THROUGHPUT_SHARE * result.getTargetRatePerSecond()) {
+            return String.format("throughput %.0f/s", result.getThroughput());
+        }
+        double p99 = result.getCorrectedLatencyPercentileMs(99);
+        if (p99 > p99LimitMs) {
+            return String.format("corrected p99 %.1f ms over %.0f ms", p99, p99LimitMs);
+        }
+        return null;
+    }
+}
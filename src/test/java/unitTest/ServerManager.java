@@ -0,0 +1,385 @@
+package unitTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Starts and stops the Todo Manager REST API jar on a given port.
+ * Instead of sleeping for a fixed time, {@link #start()} polls the port with
+ * exponential backoff until the server answers, and {@link #stop()} waits for
+ * the process itself to exit. The time from launch to the first answer is
+ * kept as {@link #getTimeToReadyMillis()} so startup cost can be reported.
+ * <p>
+ * {@link #onFreePort()} picks an unused port, so every test class (or
+ * Gradle fork) can run its own isolated server side by side with the others.
+ * A port is only reserved inside this JVM, so another fork's server may bind
+ * it first; the server is therefore only reported ready once its own process
+ * holds the listening socket ({@link #listensOn}), and {@code /shutdown} is
+ * only ever sent to a port our process owns.
+ * <p>
+ * A server asked for it with {@link #withGcLog()} (or every server, with
+ * {@code -Dperf.gcLog=true}) writes a unified GC log with wall-clock
+ * timestamps to {@code build/server-logs/gc-<runId>-<port>.log}
+ * ({@link #getGcLogFile()}), which {@link GcLog} parses, unless its JVM flags
+ * configure GC logging themselves.
+ */
+public class ServerManager implements AutoCloseable {
+
+    public static final String JAR = "runTodoManagerRestAPI-1.5.5.jar";
+    public static final int DEFAULT_PORT = 4567;
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 30_000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final long INITIAL_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 250;
+    private static final int PROBE_TIMEOUT_MILLIS = 500;
+    private static final int PORT_ATTEMPTS = 3;
+    // without /proc: how long a server that lost the port race may take to exit
+    private static final long BIND_GRACE_MILLIS = 1_000;
+
+    // ports handed out in this JVM that may not be bound yet
+    private static final Set<Integer> RESERVED_PORTS = new HashSet<>();
+
+    private int port;
+    private final boolean allocatedPort;
+    private final List<String> jvmFlags;
+    private Process process;
+    private boolean gcLog = Boolean.getBoolean("perf.gcLog");
+    private File gcLogFile;
+    private long timeToReadyMillis = -1;
+
+    public ServerManager(int port) {
+        this(port, Collections.emptyList());
+    }
+
+    /**
+     * @param port     port the server listens on
+     * @param jvmFlags extra JVM options for the server, e.g. {@code -Xmx256m}
+     */
+    public ServerManager(int port, List<String> jvmFlags) {
+        this(port, false, jvmFlags);
+    }
+
+    private ServerManager(int port, boolean allocatedPort, List<String> jvmFlags) {
+        this.port = port;
+        this.allocatedPort = allocatedPort;
+        this.jvmFlags = new ArrayList<>(jvmFlags);
+    }
+
+    /**
+     * Server on a port no other server in this JVM uses. If another process
+     * grabs the port before the server binds it, {@link #start()} moves to a
+     * fresh one.
+     */
+    public static ServerManager onFreePort() {
+        return onFreePort(Collections.emptyList());
+    }
+
+    public static ServerManager onFreePort(List<String> jvmFlags) {
+        return new ServerManager(findFreePort(), true, jvmFlags);
+    }
+
+    /**
+     * Makes the server write its GC log from the next {@link #start()} on.
+     */
+    public ServerManager withGcLog() {
+        gcLog = true;
+        return this;
+    }
+
+    /**
+     * Server JVM flags for the functional suites, from
+     * {@code -Dperf.serverJvmFlags} (space-separated); none if unset.
+     */
+    public static List<String> jvmFlagsFromSystemProperty() {
+        String flags = System.getProperty("perf.serverJvmFlags", "").trim();
+        return flags.isEmpty() ? Collections.emptyList() : Arrays.asList(flags.split("\\s+"));
+    }
+
+    /**
+     * Asks the OS for an ephemeral port that is free right now and not yet
+     * handed out in this JVM.
+     */
+    public static int findFreePort() {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            int candidate;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                socket.setReuseAddress(true);
+                candidate = socket.getLocalPort();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not allocate a free port", e);
+            }
+            synchronized (RESERVED_PORTS) {
+                if (RESERVED_PORTS.add(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalStateException("Could not allocate a free port");
+    }
+
+    /**
+     * Launches the server and blocks until it answers HTTP requests.
+     *
+     * @throws IllegalStateException if the server exits or does not answer in time
+     */
+    public void start() throws IOException {
+        if (process != null && process.isAlive()) {
+            throw new IllegalStateException("Server on port " + port + " is already running");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                launch();
+                return;
+            } catch (IllegalStateException e) {
+                // most likely lost a race for the port; only retry if we picked it ourselves
+                if (!allocatedPort || attempt >= PORT_ATTEMPTS || isRunning()) {
+                    throw e;
+                }
+                port = findFreePort();
+            }
+        }
+    }
+
+    private void launch() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmFlags);
+        gcLogFile = null;
+        if (gcLog && jvmFlags.stream().noneMatch(flag -> flag.startsWith("-Xlog:gc"))) {
+            gcLogFile = new File("build/server-logs/gc-" + RunInfo.current().getRunId() + "-" + port + ".log");
+            gcLogFile.getParentFile().mkdirs();
+            // gc+phases adds the pause lines of the concurrent collectors (ZGC)
+            command.add("-Xlog:gc,gc+phases:file=" + gcLogFile.getAbsolutePath() + ":timemillis,tags:filecount=0");
+        }
+        command.add("-jar");
+        command.add(JAR);
+        command.add("-port=" + port);
+
+        File log = new File("build/server-logs/todo-manager-" + port + ".log");
+        log.getParentFile().mkdirs();
+
+        long launchNanos = System.nanoTime();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+
+        // something else answering on the port is not enough: another fork may have bound it first,
+        // in which case our server exits (status 100) once it fails to bind
+        boolean ready = waitWithBackoff(() -> !process.isAlive() || (isResponding(port) && listensOn(process, port)),
+                STARTUP_TIMEOUT_MILLIS);
+        if (!process.isAlive()) {
+            throw new IllegalStateException("Server on port " + port + " exited during startup with code "
+                    + process.exitValue() + " (port taken by another process?); see " + log.getPath());
+        }
+        if (!ready) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Server on port " + port + " not ready after "
+                    + STARTUP_TIMEOUT_MILLIS + " ms; see " + log.getPath());
+        }
+        timeToReadyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchNanos);
+    }
+
+    /**
+     * Asks the server to shut down and waits for its process to exit,
+     * killing it if it does not exit in time.
+     */
+    public void stop() {
+        if (process == null) {
+            return;
+        }
+        if (process.isAlive()) {
+            // never ask whatever else may be listening on the port to shut down
+            if (listensOn(process, port)) {
+                sendShutdown(port);
+            }
+            if (!awaitExit(process, SHUTDOWN_TIMEOUT_MILLIS)) {
+                process.destroy();
+                if (!awaitExit(process, SHUTDOWN_TIMEOUT_MILLIS)) {
+                    process.destroyForcibly();
+                    awaitExit(process, SHUTDOWN_TIMEOUT_MILLIS);
+                }
+            }
+        }
+        process = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getBaseUri() {
+        return "http://localhost:" + port;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public boolean isRunning() {
+        return process != null && process.isAlive();
+    }
+
+    /** Wall time from launching the JVM to the first HTTP answer, -1 before the first start. */
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    /**
+     * GC log of the current (or last) server process; null if it was not
+     * asked for, the JVM flags set up their own GC logging or the server was
+     * never started.
+     */
+    public File getGcLogFile() {
+        return gcLogFile;
+    }
+
+    public List<String> getJvmFlags() {
+        return Collections.unmodifiableList(jvmFlags);
+    }
+
+    // ---------------- PROBING ----------------
+
+    /**
+     * @return true if anything answers HTTP on the port, whatever the status code
+     */
+    public static boolean isResponding(int port) {
+        try {
+            HttpURLConnection conn =
+                    (HttpURLConnection) URI.create("http://localhost:" + port + "/").toURL().openConnection();
+            conn.setConnectTimeout(PROBE_TIMEOUT_MILLIS);
+            conn.setReadTimeout(PROBE_TIMEOUT_MILLIS);
+            conn.setRequestMethod("GET");
+            conn.getResponseCode();
+            conn.disconnect();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether {@code process} itself holds the listening socket on the port.
+     * On Linux this matches the port's listening socket in
+     * {@code /proc/net/tcp[6]} against the process's file descriptors.
+     * Elsewhere it can only check that the process survives a grace period,
+     * since a server that lost the port exits right after failing to bind.
+     */
+    static boolean listensOn(Process process, int port) {
+        Path tcp = Paths.get("/proc/net/tcp");
+        if (!Files.isReadable(tcp)) {
+            return process.isAlive() && !awaitExit(process, BIND_GRACE_MILLIS);
+        }
+        Set<String> inodes = new HashSet<>();
+        for (Path table : Arrays.asList(tcp, Paths.get("/proc/net/tcp6"))) {
+            try {
+                for (String line : Files.readAllLines(table, StandardCharsets.US_ASCII)) {
+                    // sl local_address rem_address st ... inode; state 0A is LISTEN
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length > 9 && fields[3].equals("0A")) {
+                        String local = fields[1];
+                        if (Integer.parseInt(local.substring(local.lastIndexOf(':') + 1), 16) == port) {
+                            inodes.add(fields[9]);
+                        }
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // no IPv6 table on this host
+            }
+        }
+        if (inodes.isEmpty()) {
+            return false;
+        }
+        try (DirectoryStream<Path> fds = Files.newDirectoryStream(Paths.get("/proc", String.valueOf(process.pid()), "fd"))) {
+            for (Path fd : fds) {
+                try {
+                    String target = Files.readSymbolicLink(fd).toString();
+                    if (target.startsWith("socket:[") && inodes.contains(target.substring(8, target.length() - 1))) {
+                        return true;
+                    }
+                } catch (IOException e) {
+                    // descriptor closed while listing
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private static void sendShutdown(int port) {
+        try {
+            HttpURLConnection conn =
+                    (HttpURLConnection) URI.create("http://localhost:" + port + "/shutdown").toURL().openConnection();
+            conn.setConnectTimeout(PROBE_TIMEOUT_MILLIS);
+            conn.setReadTimeout(PROBE_TIMEOUT_MILLIS);
+            conn.getResponseCode();
+        } catch (IOException ignored) {
+            // the server usually drops the connection while shutting down
+        }
+    }
+
+    private static boolean awaitExit(Process process, long timeoutMillis) {
+        try {
+            process.onExit().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Polls the condition, doubling the pause between polls up to a cap.
+     *
+     * @return true if the condition held before the timeout
+     */
+    static boolean waitWithBackoff(BooleanSupplier condition, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+        return true;
+    }
+
+    private static String javaExecutable() {
+        String javaHome = System.getProperty("java.home");
+        return javaHome == null ? "java" : javaHome + File.separator + "bin" + File.separator + "java";
+    }
+}
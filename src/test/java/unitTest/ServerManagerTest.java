@@ -0,0 +1,49 @@
+package unitTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Port ownership: a server is only ready, and only shut down over HTTP, when
+ * its own process holds the port.
+ */
+public class ServerManagerTest {
+
+    @Test
+    public void shouldNotReportReadyWhenAnotherProcessHoldsThePort() throws IOException {
+        // stands in for another fork's server that bound the port first
+        HttpServer other = HttpServer.create(new InetSocketAddress(ServerManager.findFreePort()), 0);
+        other.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        other.start();
+        try {
+            int port = other.getAddress().getPort();
+            ServerManager server = new ServerManager(port);
+
+            assertThrows(IllegalStateException.class, server::start);
+            server.stop();
+            assertTrue(ServerManager.isResponding(port), "the other process's server must be left running");
+        } finally {
+            other.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldOwnThePortOnceStarted() throws IOException {
+        ServerManager server = ServerManager.onFreePort();
+        try {
+            server.start();
+            assertTrue(ServerManager.listensOn(server.getProcess(), server.getPort()));
+        } finally {
+            server.stop();
+        }
+        assertFalse(ServerManager.isResponding(server.getPort()));
+    }
+}
@@ -0,0 +1,95 @@
+package unitTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Records the server with Java Flight Recorder for the length of one
+ * benchmark step, by attaching to its process with {@code jcmd JFR.start} and
+ * {@code JFR.stop}, and writes a {@link JfrSummary} next to the recording.
+ * The summary's path goes into the step's {@code profileFile} column.
+ * <p>
+ * Off unless {@code -Dperf.profile=true}; a disabled profiler does nothing
+ * and {@link #stop} returns null, so steps call it unconditionally.
+ * Recordings use the JDK's {@code profile} settings and land in
+ * {@code build/perf-results/profiles/<runId>}; {@code -Dperf.profile.top}
+ * sets how many entries each section of the summary lists.
+ */
+public class ServerProfiler {
+
+    private final ServerManager server;
+    private final String suite;
+    private final Path directory;
+    private final int top;
+    private final boolean enabled;
+    private String activeRecording;
+    private int recordings;
+
+    public ServerProfiler(ServerManager server, String suite, Path directory, int top, boolean enabled) {
+        this.server = server;
+        this.suite = suite;
+        this.directory = directory;
+        this.top = top;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Profiler for the current run, configured from {@code perf.profile*} system properties.
+     */
+    public static ServerProfiler fromSystemProperties(ServerManager server, String suite) {
+        Path directory = Paths.get(System.getProperty("perf.results.dir", "build/perf-results"),
+                "profiles", RunInfo.current().getRunId());
+        return new ServerProfiler(server, suite, directory, Integer.getInteger("perf.profile.top", 10),
+                Boolean.getBoolean("perf.profile"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts recording. A recording left running by a step that failed is
+     * discarded first.
+     */
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (activeRecording != null) {
+            jcmd("JFR.stop", "name=" + activeRecording);
+        }
+        activeRecording = suite + "-" + (++recordings);
+        jcmd("JFR.start", "name=" + activeRecording, "settings=profile");
+    }
+
+    /**
+     * Stops recording, dumps it and writes its summary.
+     *
+     * @return path of the summary, or null if profiling is off
+     */
+    public String stop(String operation, int numObjects) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        if (activeRecording == null) {
+            throw new IllegalStateException("stop() without start()");
+        }
+        Files.createDirectories(directory);
+        String baseName = suite + "-" + operation + "-" + numObjects;
+        Path recording = directory.resolve(baseName + ".jfr").toAbsolutePath();
+        jcmd("JFR.stop", "name=" + activeRecording, "filename=" + recording);
+        activeRecording = null;
+
+        Path summary = directory.resolve(baseName + ".txt");
+        String header = String.format("%s %s at %d objects (%s)%n%n", suite, operation, numObjects, recording);
+        Files.write(summary, (header + JfrSummary.read(recording).format(top)).getBytes(StandardCharsets.UTF_8));
+        return summary.toString();
+    }
+
+    private void jcmd(String... arguments) throws IOException {
+        Jcmd.run(server.getProcess(), arguments);
+    }
+}
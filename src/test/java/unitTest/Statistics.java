@@ -0,0 +1,154 @@
+package unitTest;
+
+/**
+ * Small descriptive statistics helpers for benchmark results.
+ */
+public final class Statistics {
+
+    // two-sided 95% Student t critical values for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private Statistics() {
+    }
+
+    public static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Sample standard deviation (n - 1 denominator).
+     */
+    public static double stdDev(double[] values) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        double mean = mean(values);
+        double squares = 0;
+        for (double v : values) {
+            squares += (v - mean) * (v - mean);
+        }
+        return Math.sqrt(squares / (values.length - 1));
+    }
+
+    /**
+     * Coefficient of variation: standard deviation relative to the mean.
+     */
+    public static double coefficientOfVariation(double[] values) {
+        double mean = mean(values);
+        return mean == 0 ? 0.0 : stdDev(values) / Math.abs(mean);
+    }
+
+    /**
+     * Two-sided 95% Student t critical value.
+     */
+    public static double tCritical95(int degreesOfFreedom) {
+        if (degreesOfFreedom < 1) {
+            return Double.NaN;
+        }
+        return degreesOfFreedom <= T_95.length ? T_95[degreesOfFreedom - 1] : 1.96;
+    }
+
+    /**
+     * Half width of the 95% confidence interval of the mean.
+     */
+    public static double confidenceHalfWidth95(double[] values) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        return tCritical95(values.length - 1) * stdDev(values) / Math.sqrt(values.length);
+    }
+
+    /**
+     * Ordinary least squares fit of {@code y = intercept + slope * x}.
+     *
+     * @throws IllegalArgumentException with fewer than three points
+     */
+    public static LinearFit linearFit(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("x and y must have the same length");
+        }
+        int n = x.length;
+        if (n < 3) {
+            throw new IllegalArgumentException("need at least 3 points, got " + n);
+        }
+        double meanX = mean(x);
+        double meanY = mean(y);
+        double sxx = 0;
+        double sxy = 0;
+        double syy = 0;
+        for (int i = 0; i < n; i++) {
+            sxx += (x[i] - meanX) * (x[i] - meanX);
+            sxy += (x[i] - meanX) * (y[i] - meanY);
+            syy += (y[i] - meanY) * (y[i] - meanY);
+        }
+        if (sxx == 0) {
+            throw new IllegalArgumentException("x values must not all be equal");
+        }
+        double slope = sxy / sxx;
+        double intercept = meanY - slope * meanX;
+
+        double residualSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double residual = y[i] - (intercept + slope * x[i]);
+            residualSquares += residual * residual;
+        }
+        double slopeStdErr = Math.sqrt(residualSquares / (n - 2) / sxx);
+        double rSquared = syy == 0 ? 1.0 : 1.0 - residualSquares / syy;
+        return new LinearFit(intercept, slope, slopeStdErr, rSquared, n);
+    }
+
+    /**
+     * Result of {@link #linearFit(double[], double[])}.
+     */
+    public static final class LinearFit {
+        private final double intercept;
+        private final double slope;
+        private final double slopeStdErr;
+        private final double rSquared;
+        private final int points;
+
+        LinearFit(double intercept, double slope, double slopeStdErr, double rSquared, int points) {
+            this.intercept = intercept;
+            this.slope = slope;
+            this.slopeStdErr = slopeStdErr;
+            this.rSquared = rSquared;
+            this.points = points;
+        }
+
+        public double getIntercept() {
+            return intercept;
+        }
+
+        public double getSlope() {
+            return slope;
+        }
+
+        /** Standard error of the slope estimate. */
+        public double getSlopeStdErr() {
+            return slopeStdErr;
+        }
+
+        public double getRSquared() {
+            return rSquared;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public double predict(double x) {
+            return intercept + slope * x;
+        }
+    }
+}
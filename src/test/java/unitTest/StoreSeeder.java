@@ -0,0 +1,127 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk-creates entities for the data-size benchmarks by posting from
+ * concurrent virtual threads over one shared {@link HttpTransport}. Seeding
+ * stops at the first failed request, which on a large store usually means
+ * the server has run out of heap.
+ */
+public class StoreSeeder {
+
+    private final HttpTransport transport;
+    private final int workers;
+
+    public StoreSeeder(HttpTransport transport, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        this.transport = transport;
+        this.workers = workers;
+    }
+
+    /**
+     * Creates {@code count} entities.
+     *
+     * @param collection e.g. "todos"
+     * @param count      number of entities to create
+     * @param payloads   body of the i-th entity
+     * @return outcome; fewer created than asked once the server stops accepting writes
+     */
+    public Result seed(String collection, int count, IntFunction<byte[]> payloads) throws InterruptedException {
+        String path = "/" + collection;
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long startMillis = System.currentTimeMillis();
+
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                futures.add(executor.submit(() -> {
+                    int i;
+                    while (failures.get() == 0 && (i = nextIndex.getAndIncrement()) < count) {
+                        try {
+                            if (transport.send("POST", path, payloads.apply(i)).getStatusCode() == 201) {
+                                created.incrementAndGet();
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding worker failed", e.getCause());
+            }
+        }
+        return new Result(collection, workers, created.get(), failures.get(), startMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Outcome of one {@link #seed} call.
+     */
+    public static final class Result {
+        private final String collection;
+        private final int workers;
+        private final int created;
+        private final int failures;
+        private final long startMillis;
+        private final long endMillis;
+
+        Result(String collection, int workers, int created, int failures, long startMillis, long endMillis) {
+            this.collection = collection;
+            this.workers = workers;
+            this.created = created;
+            this.failures = failures;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        /**
+         * Row for the results file, e.g. operation "seedTodos".
+         */
+        public ResultRecord toRecord(BackgroundSampler.Interval server, ConnectionStats connections) {
+            long durationMs = Math.max(1, endMillis - startMillis);
+            return new ResultRecord("seed" + Character.toUpperCase(collection.charAt(0)) + collection.substring(1))
+                    .set("numObjects", created)
+                    .set("workers", workers)
+                    .set("requests", created + failures)
+                    .set("errors", failures)
+                    .set("durationMs", durationMs)
+                    .set("throughput", created / (durationMs / 1000.0))
+                    .server(server)
+                    .connections(connections);
+        }
+    }
+}
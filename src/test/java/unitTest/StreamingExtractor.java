@@ -0,0 +1,245 @@
+package unitTest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Searches, counts and projects the entities of a list response
+ * ({@code /todos}, {@code /projects}) without building the document tree:
+ * JSON goes through a Jackson streaming parser, XML through StAX. Each
+ * entity is handed to a visitor as a flat field map that is reused for the
+ * next entity, so memory stays constant however long the list is.
+ * Relationship fields (e.g. {@code tasksof}) are reported as comma-separated ids.
+ */
+public final class StreamingExtractor {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        // responses never need DTDs; refusing them also keeps external entities out
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Receives the entities of a list one by one.
+     */
+    @FunctionalInterface
+    public interface EntityVisitor {
+        /**
+         * @param fields fields of the current entity; only valid during the call
+         * @return false to stop reading the rest of the list
+         */
+        boolean visit(Map<String, String> fields);
+    }
+
+    private StreamingExtractor() {
+    }
+
+    // ---------------- CONVENIENCE ----------------
+
+    /**
+     * Number of entities in a JSON or XML list response.
+     */
+    public static int count(byte[] body, String collection) throws IOException {
+        return forEach(body, collection, fields -> true);
+    }
+
+    /**
+     * Values of one field across all entities, in response order.
+     */
+    public static List<String> project(byte[] body, String collection, String field) throws IOException {
+        List<String> values = new ArrayList<>();
+        forEach(body, collection, fields -> {
+            values.add(fields.get(field));
+            return true;
+        });
+        return values;
+    }
+
+    /**
+     * First entity whose field has the given value; stops reading as soon as it is found.
+     *
+     * @return copy of the entity's fields, or null if no entity matches
+     */
+    public static Map<String, String> find(byte[] body, String collection, String field, String value)
+            throws IOException {
+        List<Map<String, String>> match = new ArrayList<>(1);
+        forEach(body, collection, fields -> {
+            if (value.equals(fields.get(field))) {
+                match.add(new LinkedHashMap<>(fields));
+                return false;
+            }
+            return true;
+        });
+        return match.isEmpty() ? null : match.get(0);
+    }
+
+    /**
+     * Visits the entities of a list response, picking the parser from the
+     * body's first non-blank character.
+     *
+     * @return number of entities visited
+     */
+    public static int forEach(byte[] body, String collection, EntityVisitor visitor) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return isXml(body) ? forEachXml(in, collection, visitor) : forEachJson(in, collection, visitor);
+    }
+
+    // ---------------- JSON ----------------
+
+    /**
+     * Visits the entities of {@code {"<collection>": [ {...}, ... ]}}.
+     *
+     * @return number of entities visited
+     */
+    public static int forEachJson(InputStream in, String collection, EntityVisitor visitor) throws IOException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        StringBuilder ids = new StringBuilder();
+        int visited = 0;
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (!seekJsonArray(parser, collection)) {
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                fields.clear();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.START_ARRAY) {
+                        fields.put(name, readJsonIds(parser, ids));
+                    } else if (value == JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                    } else {
+                        fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+                    }
+                }
+                visited++;
+                if (!visitor.visit(fields)) {
+                    break;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static boolean seekJsonArray(JsonParser parser, String collection) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (collection.equals(name) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // relationship arrays look like [{"id":"1"},{"id":"2"}]
+    private static String readJsonIds(JsonParser parser, StringBuilder ids) throws IOException {
+        ids.setLength(0);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.FIELD_NAME && "id".equals(parser.getCurrentName())) {
+                parser.nextToken();
+                if (ids.length() > 0) {
+                    ids.append(',');
+                }
+                ids.append(parser.getText());
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        return ids.toString();
+    }
+
+    // ---------------- XML ----------------
+
+    /**
+     * Visits the entities of {@code <collection><entity>...</entity>...</collection>}.
+     * Child elements that contain elements themselves are relationships.
+     *
+     * @return number of entities visited
+     */
+    public static int forEachXml(InputStream in, String collection, EntityVisitor visitor) throws IOException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int visited = 0;
+        XMLStreamReader reader = null;
+        try {
+            reader = XML.createXMLStreamReader(in);
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !collection.equals(reader.getLocalName())) {
+                return 0;
+            }
+            // depth 1: entity, 2: field or relationship, 3: related id
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                fields.clear();
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    readXmlField(reader, fields);
+                }
+                visited++;
+                if (!visitor.visit(fields)) {
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML list response", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static void readXmlField(XMLStreamReader reader, Map<String, String> fields) throws XMLStreamException {
+        String name = reader.getLocalName();
+        StringBuilder text = new StringBuilder();
+        boolean relationship = false;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                // <tasks><id>1</id></tasks>, one element per related entity
+                relationship = true;
+                String id = reader.getElementText();
+                String previous = fields.get(name);
+                fields.put(name, previous == null || previous.isEmpty() ? id : previous + "," + id);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        if (!relationship) {
+            fields.put(name, text.toString());
+        }
+    }
+
+    private static boolean isXml(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '<';
+            }
+        }
+        return false;
+    }
+}
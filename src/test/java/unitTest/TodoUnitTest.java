@@ -1,19 +1,18 @@
 package unitTest;
 
 import io.restassured.RestAssured;
-import static io.restassured.RestAssured.given;
-import static java.lang.Thread.sleep;
+import io.restassured.builder.RequestSpecBuilder;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.MethodOrderer.Random;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -32,36 +31,41 @@ public class TodoUnitTest {
     private final String defaultTitle = "Title Todo";
     private final Boolean defaultDoneStatus = false;
 
-    private static Process apiProcess;
+    private static ServerManager apiServer;
+    private static RequestSpecification apiSpec;
+    private static HttpTransport transport;
+    private static PayloadCorpus todoCorpus;
+    private static BackgroundSampler serverSampler;
+    private static ResultSink results;
+    private static ServerProfiler profiler;
 
     // ---------- lifecycle ----------
     // test commit
 
     @BeforeAll
     public static void bootApi() throws Exception {
-        // Prepare CSV logging file
-        String csvFile = "src/test/resources/todo_performance_results.csv";
-        try (FileWriter writer = new FileWriter(csvFile)) {
-            writer.write("operation,numObjects,duration,cpuUsage,memoryUsage\n"); // Write the header line
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        // Start the sample API
-        try {
-            apiProcess = Runtime.getRuntime().exec("java -jar runTodoManagerRestAPI-1.5.5.jar");
-            sleep(500); // small buffer for startup
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        RestAssured.baseURI = "http://localhost:4567";
+        // Build request payloads up front so the timed loops only send bytes
+        todoCorpus = PayloadCorpus.loadOrGenerate(PayloadCorpus.Kind.TODO, 1200, PayloadCorpus.DEFAULT_SEED);
+
+        // Start the sample API and wait until it answers
+        apiServer = ServerManager.onFreePort(ServerManager.jvmFlagsFromSystemProperty());
+        apiServer.start();
+        serverSampler = new BackgroundSampler(new ProcessMetrics(apiServer.getProcess()), 50);
+        serverSampler.start();
+
+        // Per-class request spec rather than the global RestAssured.baseURI, so classes can run in parallel
+        apiSpec = new RequestSpecBuilder().setBaseUri(apiServer.getBaseUri()).build();
+        transport = HttpTransport.fromSystemProperty(apiServer.getBaseUri());
+        results = ResultSink.open("todo", transport.getName());
+        results.setServerJvmFlags(String.join(" ", apiServer.getJvmFlags()));
+        profiler = ServerProfiler.fromSystemProperties(apiServer, "todo");
+        results.record(new ResultRecord("serverStartup").set("durationMs", apiServer.getTimeToReadyMillis()));
 
         // Sanity check: API should respond on the root
         int serverResponse = 404;
         try {
             HttpURLConnection conn =
-                    (HttpURLConnection) new URL("http://localhost:4567").openConnection();
+                    (HttpURLConnection) URI.create(apiServer.getBaseUri()).toURL().openConnection();
             conn.setRequestMethod("GET");
             serverResponse = conn.getResponseCode();
             assertEquals(200, serverResponse);
@@ -100,10 +104,22 @@ public class TodoUnitTest {
 
     @AfterAll
     public static void tearDownApi() {
-        try {
-            apiProcess.destroy();
-            sleep(500);
-        } catch (Exception ignored) {}
+        if (serverSampler != null) {
+            serverSampler.close();
+        }
+        if (transport != null) {
+            transport.close();
+        }
+        if (results != null) {
+            try {
+                results.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (apiServer != null) {
+            apiServer.stop();
+        }
     }
 
     // ---------- Tests ----------
@@ -172,65 +188,43 @@ public class TodoUnitTest {
     }
 
     @Test
-    public void shouldListTodosAsJson() {
+    public void shouldListTodosAsJson() throws IOException {
         Response response = given().when().get("/todos");
-        List<Map<String, Object>> todos = response.jsonPath().getList("todos");
-        boolean found = false;
-        for (Map<String, Object> todo : todos) {
-            if (seedTodoObj.getString("title").equals(todo.get("title"))) {
-                found = true; break;
-            }
-        }
+        // streamed, so the check costs the same however many todos the store holds
+        byte[] body = response.asByteArray();
+        Map<String, String> found = StreamingExtractor.find(body, "todos", "title", seedTodoObj.getString("title"));
+
         assertEquals(200, response.getStatusCode());
-        assertFalse(todos.isEmpty());
-        assertTrue(found);
+        assertTrue(StreamingExtractor.count(body, "todos") > 0);
+        assertNotNull(found);
     }
 
     @Test
-    public void shouldUpdateTodoViaPost() {
+    @Tag("perf")
+    public void shouldUpdateTodoViaPost() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/todo_performance_results.csv";
 
-        for (int numObjects : objectCounts) {
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling window before the operation
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // Perform the POST updates numObjects times
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject updatedTodo = newUniqueTodo();
-
-                Response responsePost = given()
-                        .body(updatedTodo.toString())
-                        .when()
-                        .post("/todos/" + currentTodoId);
-
-                assertEquals(200, responsePost.getStatusCode());
-            }
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000; // sample CPU for 1s after the work
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "updateTodoPost",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // Perform the POST updates n times
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse responsePost = transport.send("POST", "/todos/" + currentTodoId, todoCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, responsePost.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("updateTodoPost", result, server, connections)
+                    .set("profileFile", profiler.stop("updateTodoPost", numObjects)));
         }
     }
 
@@ -281,14 +275,14 @@ public class TodoUnitTest {
     }
 
     @Test
-    public void shouldListTodosAsXml() {
+    public void shouldListTodosAsXml() throws IOException {
         Response response = given()
                 .header("Accept", ContentType.XML)
                 .contentType(ContentType.XML)
                 .when()
                 .get("/todos");
 
-        List<String> titles = response.xmlPath().getList("todos.todo.title");
+        List<String> titles = StreamingExtractor.project(response.asByteArray(), "todos", "title");
         boolean found = titles.contains(seedTodoObj.getString("title"));
 
         assertEquals(200, response.getStatusCode());
@@ -350,49 +344,31 @@ public class TodoUnitTest {
 
     // Captures actual server behavior (reset of some fields)
     @Test
-    public void shouldReflectActualPutBehavior_resetsFields() {
+    @Tag("perf")
+    public void shouldReflectActualPutBehavior_resetsFields() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/todo_performance_results.csv";
 
-        for (int numObjects : objectCounts) {
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling window before the operation
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // Perform the POST updates numObjects times
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject updatedTodo = newUniqueTodo();
-                Response responsePost = given()
-                        .body(updatedTodo.toString())
-                        .when()
-                        .put("/todos/" + currentTodoId);
-
-                assertEquals(200, responsePost.getStatusCode());
-            }
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000;
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "updateTodoPut",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // Perform the POST updates n times
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse responsePost = transport.send("PUT", "/todos/" + currentTodoId, todoCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, responsePost.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("updateTodoPut", result, server, connections)
+                    .set("profileFile", profiler.stop("updateTodoPut", numObjects)));
         }
     }
 
@@ -509,123 +485,121 @@ public class TodoUnitTest {
     }
 
     @Test
-    public void shouldCreateMultipleTodosAndCleanup() {
+    @Tag("perf")
+    public void shouldCreateMultipleTodosAndCleanup() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/todo_performance_results.csv";
-
-        for (int numObjects : objectCounts) {
-
-            // ---- initial metrics ----
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling window before operation
 
-            double initialCpuUsage = PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage = PerformanceUtils.getCurrentMemoryUsage();
-
-            // ---- create & delete numObjects todos ----
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject todo = newUniqueTodo();
-
-                Response response = given()
-                        .body(todo.toString())
-                        .when()
-                        .post("/todos");
-                assertEquals(201, response.getStatusCode());
-
-                int createdId = response.jsonPath().getInt("id");
-
-                Response del = given()
-                        .pathParam("id", createdId)
-                        .when()
-                        .delete("/todos/{id}");
-                assertEquals(200, del.getStatusCode());
-            }
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
-            // ---- final metrics ----
-            long operationEndTime = System.currentTimeMillis();
-            long finalSamplingEndTime = operationEndTime + 1000; // 1-second sampling after operation
-
-            double finalCpuUsage = PerformanceUtils.sampleCpuLoad(operationEndTime, finalSamplingEndTime);
-            long finalMemoryUsage = PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            // ---- log to CSV ----
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "createMultipleTodos",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
+        for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // ---- create & delete n todos ----
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("POST", "/todos", todoCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+                    assertEquals(201, response.getStatusCode());
+
+                    int createdId = response.getJsonInt("id");
+
+                    requestStart = System.nanoTime();
+                    TransportResponse del = transport.send("DELETE", "/todos/" + createdId, null);
+                    latencies.recordValue(System.nanoTime() - requestStart);
+                    assertEquals(200, del.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("createMultipleTodos", result, server, connections)
+                    .set("profileFile", profiler.stop("createMultipleTodos", numObjects)));
         }
     }
 
 
     @Test
-    public void shouldDeleteBatchOfNewTodos_withPerformance() {
+    @Tag("perf")
+    public void shouldDeleteBatchOfNewTodos_withPerformance() throws Exception {
         int[] objectCounts = {1, 200, 400, 600, 800, 1000, 1200};
-        String csvFile = "src/test/resources/todo_performance_results.csv";
+
+        BenchmarkRunner runner = BenchmarkRunner.fromSystemProperties();
 
         for (int numObjects : objectCounts) {
+            ConnectionStats connectionsBefore = transport.getStats();
+            profiler.start();
+            BenchmarkRunner.Result result = runner.run(numObjects, (n, latencies) -> {
+                // ---- create N todos ----
+                int[] createdIds = new int[n];
+                for (int i = 0; i < n; i++) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("POST", "/todos", todoCorpus.get(i));
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(201, response.getStatusCode());
+                    createdIds[i] = response.getJsonInt("id");
+                }
+
+                // ---- delete them ----
+                for (int id : createdIds) {
+                    long requestStart = System.nanoTime();
+                    TransportResponse response = transport.send("DELETE", "/todos/" + id, null);
+                    latencies.recordValue(System.nanoTime() - requestStart);
+
+                    assertEquals(200, response.getStatusCode());
+                }
+            });
+
+            BackgroundSampler.Interval server = serverSampler.interval(result.getStartMillis(), result.getEndMillis());
+            ConnectionStats connections = transport.getStats().since(connectionsBefore);
+
+            results.record(ResultRecord.forStep("deleteTodos", result, server, connections)
+                    .set("profileFile", profiler.stop("deleteTodos", numObjects)));
+        }
+    }
 
-            // ---- initial metrics ----
-            long startTime = System.currentTimeMillis();
-            long initialSampleEnd = startTime + 1000; // 1-second sampling before creation/deletion
-
-            double initialCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(startTime, initialSampleEnd);
-            long initialMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            // ---- create N todos ----
-            int[] createdIds = new int[numObjects];
-            for (int i = 0; i < numObjects; i++) {
-                JSONObject todo = newUniqueTodo();
-                Response response = given()
-                        .body(todo.toString())
-                        .when()
-                        .post("/todos");
-
-                assertEquals(201, response.getStatusCode());
-                createdIds[i] = response.jsonPath().getInt("id");
+    @Test
+    @Tag("perf")
+    public void shouldSustainConcurrentTodoReads() throws Exception {
+        int[] workerCounts = {1, 2, 4, 8, 16, 32};
+        int requestsPerStep = 1200;
+        double targetRate = 400.0; // requests per second, across all workers; doubled until the server breaks
+        SaturationSweep sweep = SaturationSweep.fromSystemProperties(targetRate);
+
+        for (int workers : workerCounts) {
+            String breach = null;
+            for (double rate : sweep.getRates()) {
+                LoadGenerator generator = new LoadGenerator(workers, rate);
+                int requests = sweep.requestsAt(rate, requestsPerStep);
+                ConnectionStats connectionsBefore = transport.getStats();
+                profiler.start();
+                long startTime = System.currentTimeMillis();
+                LoadGenerator.LoadResult result = generator.run(requests, (workerId, sequence) ->
+                        transport.send("GET", "/todos/" + currentTodoId, null).getStatusCode());
+
+                assertEquals(requests, result.getRequests());
+                if (rate == targetRate) {
+                    assertEquals(0, result.getErrors());
+                }
+
+                BackgroundSampler.Interval server = serverSampler.interval(startTime, System.currentTimeMillis());
+                ConnectionStats connections = transport.getStats().since(connectionsBefore);
+                String profileFile = profiler.stop("concurrentGetTodo-" + (long) rate + "rps", workers);
+                results.record(ResultRecord.forLoad("concurrentGetTodo", result, server, connections)
+                        .set("profileFile", profileFile));
+
+                breach = sweep.breach(result);
+                if (breach != null) {
+                    System.out.printf("concurrentGetTodo: %d workers saturate at %.0f/s (%s)%n", workers, rate, breach);
+                    results.record(ResultRecord.forLoad("concurrentGetTodoSaturation", result, server, connections));
+                    break;
+                }
             }
-
-            // ---- delete them ----
-            for (int id : createdIds) {
-                Response response = given()
-                        .pathParam("id", id)
-                        .when()
-                        .delete("/todos/{id}");
-
-                assertEquals(200, response.getStatusCode());
+            if (breach == null) {
+                System.out.printf("concurrentGetTodo: %d workers kept up with every rate swept%n", workers);
             }
-
-            // ---- final metrics ----
-            long operationEndTime = System.currentTimeMillis();
-            long finalSampleEnd = operationEndTime + 1000; // 1-second sampling after operations
-
-            double finalCpuUsage =
-                    PerformanceUtils.sampleCpuLoad(operationEndTime, finalSampleEnd);
-            long finalMemoryUsage =
-                    PerformanceUtils.getCurrentMemoryUsage();
-
-            long duration = operationEndTime - startTime;
-            double cpuDelta = Math.max(0, finalCpuUsage - initialCpuUsage);
-            long memoryDelta = Math.max(0, finalMemoryUsage - initialMemoryUsage);
-
-            // ---- log to CSV ----
-            PerformanceUtils.logToCsv(
-                    csvFile,
-                    "deleteTodos",
-                    numObjects,
-                    duration,
-                    cpuDelta,
-                    memoryDelta
-            );
         }
     }
 
@@ -644,4 +618,8 @@ public class TodoUnitTest {
                 "Testing Todo endpoints"
         );
     }
-}
\ No newline at end of file
+
+    private static RequestSpecification given() {
+        return RestAssured.given().spec(apiSpec);
+    }
+}
@@ -0,0 +1,39 @@
+package unitTest;
+
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+
+/**
+ * Status and raw body of a response received through an {@link HttpTransport}.
+ */
+public class TransportResponse {
+
+    private final int statusCode;
+    private final byte[] body;
+
+    public TransportResponse(int statusCode, byte[] body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a top-level field of a JSON body as an int; the API returns ids
+     * as strings, which are converted.
+     */
+    public int getJsonInt(String field) {
+        return new JSONObject(getBodyAsString()).getInt(field);
+    }
+}
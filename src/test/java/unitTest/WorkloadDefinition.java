@@ -0,0 +1,428 @@
+package unitTest;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mixed read/write workload, read from JSON: which operations to send and
+ * in what proportions, how requests pick the entity they touch, and how the
+ * load is offered. For example:
+ * <pre>
+ * {
+ *   "name": "readHeavy",
+ *   "collection": "todos",
+ *   "initialEntities": 1000,
+ *   "requests": 5000,
+ *   "workers": 16,
+ *   "targetRate": 500,
+ *   "seed": 429,
+ *   "keyDistribution": {"type": "zipfian", "exponent": 0.99},
+ *   "mix": [
+ *     {"operation": "getById", "weight": 70},
+ *     {"operation": "list", "weight": 15},
+ *     {"operation": "create", "weight": 10},
+ *     {"operation": "delete", "weight": 5}
+ *   ]
+ * }
+ * </pre>
+ * Weights are relative and need not add up to 100. {@code keyDistribution}
+ * defaults to uniform.
+ * <p>
+ * A workload gives either a {@code targetRate}, and runs open-loop at that
+ * arrival rate, or a {@code thinkTimeMs} such as
+ * {@code {"type": "exponential", "mean": 2}}, and runs closed-loop: each
+ * worker is a user who sends, waits for the response, thinks, and sends
+ * again. Invalid definitions fail with an {@link IllegalArgumentException}
+ * naming the bad field.
+ */
+public class WorkloadDefinition {
+
+    /**
+     * Request types a workload can mix.
+     */
+    public enum Operation {
+        /** {@code GET /<collection>/{id}} on a key from the key distribution. */
+        GET_BY_ID("getById"),
+        /** {@code GET /<collection>}. */
+        LIST("list"),
+        /** {@code POST /<collection>} with a corpus payload. */
+        CREATE("create"),
+        /** {@code PUT /<collection>/{id}} on a key from the key distribution. */
+        UPDATE("update"),
+        /** {@code DELETE /<collection>/{id}} on an entity set aside for it. */
+        DELETE("delete");
+
+        private final String jsonName;
+
+        Operation(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+
+        static Operation fromJsonName(String name) {
+            for (Operation operation : values()) {
+                if (operation.jsonName.equals(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + name);
+        }
+    }
+
+    private final String name;
+    private final String collection;
+    private final int initialEntities;
+    private final int requests;
+    private final int workers;
+    private final double targetRate;
+    private final long seed;
+    private final KeyDistribution keyDistribution;
+    private final ThinkTime thinkTime;
+    private final Map<Operation, Double> mix;
+
+    private WorkloadDefinition(String name, String collection, int initialEntities, int requests, int workers,
+                               double targetRate, long seed, KeyDistribution keyDistribution, ThinkTime thinkTime,
+                               Map<Operation, Double> mix) {
+        this.name = name;
+        this.collection = collection;
+        this.initialEntities = initialEntities;
+        this.requests = requests;
+        this.workers = workers;
+        this.targetRate = targetRate;
+        this.seed = seed;
+        this.keyDistribution = keyDistribution;
+        this.thinkTime = thinkTime;
+        this.mix = mix;
+    }
+
+    // ---------- loading ----------
+
+    public static WorkloadDefinition load(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param resource classpath resource, e.g. "workloads/read-heavy.json"
+     */
+    public static WorkloadDefinition fromResource(String resource) throws IOException {
+        try (InputStream in = WorkloadDefinition.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Workload resource not found: " + resource);
+            }
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public static WorkloadDefinition parse(String json) {
+        try {
+            JSONObject root = new JSONObject(json);
+            String collection = root.optString("collection", "todos");
+            if (!collection.equals("todos") && !collection.equals("projects")) {
+                throw new IllegalArgumentException("collection must be todos or projects, got " + collection);
+            }
+
+            JSONArray entries = root.getJSONArray("mix");
+            Map<Operation, Double> mix = new LinkedHashMap<>();
+            double totalWeight = 0;
+            for (int i = 0; i < entries.length(); i++) {
+                JSONObject entry = entries.getJSONObject(i);
+                Operation operation = Operation.fromJsonName(entry.getString("operation"));
+                double weight = entry.getDouble("weight");
+                if (weight < 0 || mix.containsKey(operation)) {
+                    throw new IllegalArgumentException("mix: " + operation.getJsonName()
+                            + (weight < 0 ? " has a negative weight" : " is listed twice"));
+                }
+                mix.put(operation, weight);
+                totalWeight += weight;
+            }
+            if (totalWeight <= 0) {
+                throw new IllegalArgumentException("mix needs at least one operation with a positive weight");
+            }
+
+            boolean hasRate = root.has("targetRate");
+            if (hasRate == root.has("thinkTimeMs")) {
+                throw new IllegalArgumentException("give either targetRate (open loop) or thinkTimeMs (closed loop)");
+            }
+            WorkloadDefinition definition = new WorkloadDefinition(
+                    root.getString("name"),
+                    collection,
+                    positive(root.getInt("initialEntities"), "initialEntities"),
+                    positive(root.getInt("requests"), "requests"),
+                    positive(root.optInt("workers", 8), "workers"),
+                    hasRate ? root.getDouble("targetRate") : 0,
+                    root.optLong("seed", PayloadCorpus.DEFAULT_SEED),
+                    KeyDistribution.parse(root.optJSONObject("keyDistribution")),
+                    ThinkTime.parse(root.optJSONObject("thinkTimeMs")),
+                    Collections.unmodifiableMap(mix));
+            if (hasRate && definition.targetRate <= 0) {
+                throw new IllegalArgumentException("targetRate must be positive");
+            }
+            return definition;
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid workload definition: " + e.getMessage(), e);
+        }
+    }
+
+    private static int positive(int value, String field) {
+        if (value < 1) {
+            throw new IllegalArgumentException(field + " must be at least 1, got " + value);
+        }
+        return value;
+    }
+
+    // ---------- sampling ----------
+
+    /**
+     * Draws the operation of every request up front, so a seed always yields
+     * the same sequence and the number of each operation is known before the
+     * run starts.
+     */
+    public Operation[] drawOperations() {
+        List<Operation> operations = new ArrayList<>(mix.keySet());
+        double[] cumulative = new double[operations.size()];
+        double total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += mix.get(operations.get(i));
+            cumulative[i] = total;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Operation[] drawn = new Operation[requests];
+        for (int r = 0; r < requests; r++) {
+            double u = random.nextDouble() * total;
+            int i = 0;
+            while (i < cumulative.length - 1 && u >= cumulative[i]) {
+                i++;
+            }
+            drawn[r] = operations.get(i);
+        }
+        return drawn;
+    }
+
+    // ---------- getters ----------
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public int getInitialEntities() {
+        return initialEntities;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /** Arrival rate of an open-loop workload; 0 for a closed-loop one. */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public boolean isClosedLoop() {
+        return targetRate == 0;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public KeyDistribution getKeyDistribution() {
+        return keyDistribution;
+    }
+
+    public ThinkTime getThinkTime() {
+        return thinkTime;
+    }
+
+    /** Relative weight of each operation, in definition order. */
+    public Map<Operation, Double> getMix() {
+        return mix;
+    }
+
+    /**
+     * How requests that target one entity pick it from the seeded keyspace.
+     * Zipfian makes key rank {@code k} (from 0) proportionally as popular as
+     * {@code 1 / (k + 1)^exponent}, so a few hot keys take most requests.
+     */
+    public static final class KeyDistribution {
+        private final String type;
+        private final double exponent;
+
+        private KeyDistribution(String type, double exponent) {
+            this.type = type;
+            this.exponent = exponent;
+        }
+
+        static KeyDistribution parse(JSONObject json) {
+            if (json == null) {
+                return new KeyDistribution("uniform", 0);
+            }
+            String type = json.getString("type");
+            switch (type) {
+                case "uniform":
+                    return new KeyDistribution(type, 0);
+                case "zipfian":
+                    double exponent = json.optDouble("exponent", 0.99);
+                    if (exponent <= 0) {
+                        throw new IllegalArgumentException("keyDistribution.exponent must be positive");
+                    }
+                    return new KeyDistribution(type, exponent);
+                default:
+                    throw new IllegalArgumentException("Unknown keyDistribution.type: " + type);
+            }
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public double getExponent() {
+            return exponent;
+        }
+
+        /**
+         * Cumulative probability of each key rank over {@code keys} keys, for
+         * {@link #sample}; null for uniform, which needs no table.
+         */
+        double[] cumulative(int keys) {
+            if (exponent == 0) {
+                return null;
+            }
+            double[] cdf = new double[keys];
+            double total = 0;
+            for (int k = 0; k < keys; k++) {
+                total += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = total;
+            }
+            for (int k = 0; k < keys; k++) {
+                cdf[k] /= total;
+            }
+            return cdf;
+        }
+
+        /**
+         * @param cdf table from {@link #cumulative}, or null for uniform
+         * @return key rank between 0 and {@code keys - 1}
+         */
+        static int sample(double[] cdf, int keys, SplittableRandom random) {
+            if (cdf == null) {
+                return random.nextInt(keys);
+            }
+            int rank = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(rank >= 0 ? rank : -rank - 1, keys - 1);
+        }
+
+        @Override
+        public String toString() {
+            return exponent == 0 ? type : type + "(" + exponent + ")";
+        }
+    }
+
+    /**
+     * Pause between a response and a closed-loop worker's next request:
+     * none, fixed, uniform between {@code min} and {@code max}, or
+     * exponential around a {@code mean}, all in milliseconds.
+     */
+    public static final class ThinkTime {
+        private final String type;
+        private final double minMs;
+        private final double maxMs;
+
+        private ThinkTime(String type, double minMs, double maxMs) {
+            if (minMs < 0 || maxMs < minMs) {
+                throw new IllegalArgumentException("thinkTimeMs bounds must satisfy 0 <= min <= max");
+            }
+            this.type = type;
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+
+        static ThinkTime parse(JSONObject json) {
+            if (json == null) {
+                return new ThinkTime("none", 0, 0);
+            }
+            String type = json.getString("type");
+            switch (type) {
+                case "none":
+                    return new ThinkTime(type, 0, 0);
+                case "fixed":
+                    double ms = json.getDouble("ms");
+                    return new ThinkTime(type, ms, ms);
+                case "uniform":
+                    return new ThinkTime(type, json.getDouble("min"), json.getDouble("max"));
+                case "exponential":
+                    // mean kept in both bounds
+                    double mean = json.getDouble("mean");
+                    return new ThinkTime(type, mean, mean);
+                default:
+                    throw new IllegalArgumentException("Unknown thinkTimeMs.type: " + type);
+            }
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public boolean isNone() {
+            return maxMs == 0;
+        }
+
+        /**
+         * @return pause in nanoseconds
+         */
+        long nextPauseNanos(SplittableRandom random) {
+            double ms;
+            switch (type) {
+                case "uniform":
+                    ms = minMs == maxMs ? minMs : random.nextDouble(minMs, maxMs);
+                    break;
+                case "exponential":
+                    ms = -minMs * Math.log(1 - random.nextDouble());
+                    break;
+                default:
+                    ms = minMs;
+            }
+            return (long) (ms * TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+                case "uniform":
+                    return "uniform(" + minMs + "-" + maxMs + "ms)";
+                case "exponential":
+                    return "exponential(mean " + minMs + "ms)";
+                case "fixed":
+                    return minMs + "ms";
+                default:
+                    return type;
+            }
+        }
+    }
+}
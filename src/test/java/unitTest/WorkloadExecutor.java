@@ -0,0 +1,240 @@
+package unitTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs a {@link WorkloadDefinition} against the server with the
+ * {@link LoadGenerator}, open-loop at the workload's target rate or
+ * closed-loop with its think time, and breaks the results down per
+ * operation type.
+ * <p>
+ * Before the run, the collection is seeded with the keyspace that reads and
+ * updates pick from, plus one spare entity for every delete in the drawn
+ * sequence, so deletes never race each other for the same id and the
+ * keyspace stays intact. {@link #cleanUp()} deletes the keyspace, the
+ * unused spares and everything the run created.
+ */
+public class WorkloadExecutor {
+
+    private static final int SEED_WORKERS = 32;
+
+    private final WorkloadDefinition workload;
+    private final HttpTransport transport;
+    private final PayloadCorpus corpus;
+    private final String path;
+    private final WorkloadDefinition.Operation[] operations;
+
+    private String[] keys;
+    private final Queue<String> spares = new ConcurrentLinkedQueue<>();
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+
+    public WorkloadExecutor(WorkloadDefinition workload, HttpTransport transport) {
+        this.workload = workload;
+        this.transport = transport;
+        this.corpus = PayloadCorpus.loadOrGenerate(
+                workload.getCollection().equals("projects") ? PayloadCorpus.Kind.PROJECT : PayloadCorpus.Kind.TODO,
+                1200, workload.getSeed());
+        this.path = "/" + workload.getCollection();
+        this.operations = workload.drawOperations();
+    }
+
+    /**
+     * Creates the keyspace and the spares for the drawn deletes. Not timed.
+     */
+    public void prepare() throws Exception {
+        int deletes = 0;
+        for (WorkloadDefinition.Operation operation : operations) {
+            if (operation == WorkloadDefinition.Operation.DELETE) {
+                deletes++;
+            }
+        }
+        String[] ids = createAll(workload.getInitialEntities() + deletes);
+        keys = new String[workload.getInitialEntities()];
+        System.arraycopy(ids, 0, keys, 0, keys.length);
+        for (int i = keys.length; i < ids.length; i++) {
+            spares.add(ids[i]);
+        }
+    }
+
+    /**
+     * Sends the workload's requests, at its target rate or as fast as its
+     * workers' think time allows.
+     */
+    public Result run() {
+        if (keys == null) {
+            throw new IllegalStateException("prepare() must be called before run()");
+        }
+        double[] cdf = workload.getKeyDistribution().cumulative(keys.length);
+        WorkloadDefinition.ThinkTime thinkTime = workload.getThinkTime();
+        List<WorkloadDefinition.Operation> types = new ArrayList<>(workload.getMix().keySet());
+        String[] typeNames = types.stream().map(WorkloadDefinition.Operation::getJsonName).toArray(String[]::new);
+
+        // one random stream per worker, only used by its own worker
+        SplittableRandom root = new SplittableRandom(workload.getSeed());
+        SplittableRandom[] randoms = new SplittableRandom[workload.getWorkers()];
+        for (int w = 0; w < randoms.length; w++) {
+            randoms[w] = root.split();
+        }
+
+        LoadGenerator generator = workload.isClosedLoop()
+                ? LoadGenerator.closedLoop(workload.getWorkers(),
+                        thinkTime.isNone() ? null : workerId -> thinkTime.nextPauseNanos(randoms[workerId]))
+                : new LoadGenerator(workload.getWorkers(), workload.getTargetRate());
+        LoadGenerator.LoadResult total = generator.run(workload.getRequests(),
+                (workerId, sequence) -> execute(operations[(int) sequence], cdf, randoms[workerId]),
+                typeNames,
+                sequence -> types.indexOf(operations[(int) sequence]));
+        return new Result(workload, total);
+    }
+
+    /**
+     * Deletes the keyspace, everything the run created and the spares no
+     * delete used up.
+     */
+    public void cleanUp() throws Exception {
+        List<String> leftovers = new ArrayList<>(created);
+        leftovers.addAll(spares);
+        if (keys != null) {
+            leftovers.addAll(Arrays.asList(keys));
+            keys = null;
+        }
+        created.clear();
+        spares.clear();
+        new GraphWorkload(transport, SEED_WORKERS).deleteAll(workload.getCollection(), leftovers.toArray(new String[0]));
+    }
+
+    // ---------- requests ----------
+
+    private int execute(WorkloadDefinition.Operation operation, double[] cdf, SplittableRandom random) throws Exception {
+        switch (operation) {
+            case GET_BY_ID:
+                return transport.send("GET", path + "/" + key(cdf, random), null).getStatusCode();
+            case LIST:
+                return transport.send("GET", path, null).getStatusCode();
+            case CREATE: {
+                TransportResponse response = transport.send("POST", path, corpus.get(random.nextInt(corpus.size())));
+                if (response.getStatusCode() == 201) {
+                    created.add(String.valueOf(response.getJsonInt("id")));
+                }
+                return response.getStatusCode();
+            }
+            case UPDATE:
+                return transport.send("PUT", path + "/" + key(cdf, random),
+                        corpus.get(random.nextInt(corpus.size()))).getStatusCode();
+            case DELETE: {
+                String id = spares.poll();
+                if (id == null) {
+                    throw new IllegalStateException("No spare " + workload.getCollection() + " left to delete");
+                }
+                return transport.send("DELETE", path + "/" + id, null).getStatusCode();
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    private String key(double[] cdf, SplittableRandom random) {
+        return keys[WorkloadDefinition.KeyDistribution.sample(cdf, keys.length, random)];
+    }
+
+    private String[] createAll(int count) throws Exception {
+        StoreSeeder.Result seeded = new StoreSeeder(transport, SEED_WORKERS).seed(workload.getCollection(), count,
+                i -> corpus.get(i % corpus.size()));
+        if (seeded.getCreated() < count) {
+            throw new IllegalStateException("Could only seed " + seeded.getCreated() + " of " + count + " "
+                    + workload.getCollection() + " for workload " + workload.getName());
+        }
+        // the seeder keeps no ids; the server numbers entities in creation order
+        List<String> all = StreamingExtractor.project(transport.send("GET", path, null).getBody(),
+                workload.getCollection(), "id");
+        all.sort(Comparator.comparingLong(Long::parseLong));
+        return all.subList(all.size() - count, all.size()).toArray(new String[0]);
+    }
+
+    /**
+     * Outcome of one run: the whole workload, and each operation type.
+     */
+    public static final class Result {
+        private final WorkloadDefinition workload;
+        private final LoadGenerator.LoadResult total;
+
+        Result(WorkloadDefinition workload, LoadGenerator.LoadResult total) {
+            this.workload = workload;
+            this.total = total;
+        }
+
+        public LoadGenerator.LoadResult getTotal() {
+            return total;
+        }
+
+        /** Results of each operation type, keyed on its name in the definition. */
+        public Map<String, LoadGenerator.LoadResult> getPerOperation() {
+            return total.getByType();
+        }
+
+        /**
+         * Rows for the results file: one per operation type (e.g.
+         * "readHeavy.getById"), whose throughput is its share of the run, and
+         * one for the whole workload (e.g. "readHeavy").
+         */
+        public List<ResultRecord> toRecords(BackgroundSampler.Interval server, ConnectionStats connections) {
+            List<ResultRecord> records = new ArrayList<>();
+            for (Map.Entry<String, LoadGenerator.LoadResult> entry : getPerOperation().entrySet()) {
+                LoadGenerator.LoadResult operation = entry.getValue();
+                if (operation.getRequests() == 0) {
+                    continue;
+                }
+                records.add(new ResultRecord(workload.getName() + "." + entry.getKey())
+                        .set("numObjects", workload.getInitialEntities())
+                        .set("workers", operation.getWorkers())
+                        .set("errors", operation.getErrors())
+                        .set("durationMs", operation.getDurationMs())
+                        .set("throughput", operation.getThroughput())
+                        .latencies(operation.getLatencies())
+                        .schedule(operation));
+            }
+            records.add(ResultRecord.forLoad(workload.getName(), total, server, connections)
+                    .set("numObjects", workload.getInitialEntities()));
+            return records;
+        }
+
+        /**
+         * Per-operation table for the console, with the p99 both as measured
+         * and corrected for coordinated omission.
+         */
+        public String format() {
+            String load = workload.isClosedLoop()
+                    ? String.format("closed loop, think time %s", workload.getThinkTime())
+                    : String.format("open loop at %.0f/s", workload.getTargetRate());
+            StringBuilder table = new StringBuilder(String.format("%s: %d requests on %d %s, %s keys, %s%n",
+                    workload.getName(), total.getRequests(), workload.getInitialEntities(), workload.getCollection(),
+                    workload.getKeyDistribution(), load));
+            table.append(String.format("%-10s %9s %7s %8s %10s %10s %10s %12s %10s%n",
+                    "operation", "requests", "share", "errors", "meanMs", "p50Ms", "p99Ms", "corrP99Ms", "maxMs"));
+            for (Map.Entry<String, LoadGenerator.LoadResult> entry : getPerOperation().entrySet()) {
+                appendRow(table, entry.getKey(), entry.getValue());
+            }
+            appendRow(table, "all", total);
+            return table.toString();
+        }
+
+        private void appendRow(StringBuilder table, String label, LoadGenerator.LoadResult result) {
+            if (result.getRequests() == 0) {
+                table.append(String.format("%-10s %9d%n", label, 0));
+                return;
+            }
+            table.append(String.format("%-10s %9d %6.1f%% %8d %10.2f %10.2f %10.2f %12.2f %10.2f%n",
+                    label, result.getRequests(), 100.0 * result.getRequests() / total.getRequests(),
+                    result.getErrors(), result.getMeanLatencyMs(), result.getLatencyPercentileMs(50),
+                    result.getLatencyPercentileMs(99), result.getCorrectedLatencyPercentileMs(99),
+                    result.getLatencyPercentileMs(100)));
+        }
+    }
+}